@@ -0,0 +1,125 @@
+/**
+ * Growable adjacency lists for a directed graph over the vertices 0 .. n - 1, with an optional
+ * weight per edge. Each vertex keeps its targets, and weights if any, in IntArrayLists, so
+ * building a graph edge by edge allocates no boxes. toCSR compiles the lists into a CSRGraph
+ * for the traversals, and the snapshot is reused until the next edge is added.
+ *
+ * Time Complexity: O(1) amortized addEdge, O(V + E) toCSR
+ */
+public class AdjacencyBuilder {
+	private IntArrayList[] targets;
+	private IntArrayList[] weights; // null for unweighted graphs
+	private int edgeCount;
+	private CSRGraph csr; // compiled snapshot, null after the graph changes
+
+	/*
+	@param n, number of vertices
+	@param weighted, true to store a weight with every edge
+	*/
+	public AdjacencyBuilder(int n, boolean weighted) {
+		targets = new IntArrayList[n];
+		weights = weighted ? new IntArrayList[n] : null;
+		for (int v = 0; v < n; v++) {
+			targets[v] = new IntArrayList(4);
+			if (weighted) {
+				weights[v] = new IntArrayList(4);
+			}
+		}
+	}
+
+	public int vertexCount() {
+		return targets.length;
+	}
+
+	public int edgeCount() {
+		return edgeCount;
+	}
+
+	public boolean isWeighted() {
+		return weights != null;
+	}
+
+	/*
+	Adds an unweighted edge from u to v.
+	@param u, vertex
+	@param v, vertex
+	*/
+	public void addEdge(int u, int v) {
+		if (weights != null) {
+			throw new IllegalStateException("Edges of a weighted graph need a weight");
+		}
+		targets[u].add(v);
+		edgeCount++;
+		csr = null;
+	}
+
+	/*
+	Adds a weighted edge from u to v.
+	@param u, vertex
+	@param v, vertex
+	@param weight, the weight of the edge
+	*/
+	public void addEdge(int u, int v, int weight) {
+		if (weights == null) {
+			throw new IllegalStateException("Edges of an unweighted graph have no weight");
+		}
+		targets[u].add(v);
+		weights[u].add(weight);
+		edgeCount++;
+		csr = null;
+	}
+
+	/*
+	@param u, vertex
+	@output the number of edges leaving u
+	*/
+	public int degree(int u) {
+		return targets[u].size();
+	}
+
+	/*
+	@param u, vertex
+	@param i, index of the edge among the edges of u, in the order they were added
+	@output the endpoint of the edge.
+	*/
+	public int target(int u, int i) {
+		return targets[u].get(i);
+	}
+
+	/*
+	@param u, vertex
+	@param i, index of the edge among the edges of u, in the order they were added
+	@output the weight of the edge.
+	*/
+	public int weight(int u, int i) {
+		return weights[u].get(i);
+	}
+
+	/*
+	Compiles the adjacency lists into a CSR snapshot, keeping the order of each vertex's edges.
+	@output the compiled graph.
+	*/
+	public CSRGraph toCSR() {
+		if (csr != null) {
+			return csr;
+		}
+		int n = targets.length;
+		int[] offsets = new int[n + 1];
+		for (int u = 0; u < n; u++) {
+			offsets[u + 1] = offsets[u] + targets[u].size();
+		}
+		int[] csrTargets = new int[offsets[n]];
+		int[] csrWeights = weights == null ? null : new int[offsets[n]];
+		for (int u = 0; u < n; u++) {
+			IntArrayList t = targets[u];
+			for (int i = 0, e = offsets[u]; i < t.size(); i++, e++) {
+				csrTargets[e] = t.get(i);
+				if (csrWeights != null) {
+					csrWeights[e] = weights[u].get(i);
+				}
+			}
+		}
+		csr = new CSRGraph(offsets, csrTargets, csrWeights);
+		return csr;
+	}
+}
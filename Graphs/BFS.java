@@ -1,60 +1,338 @@
+/**
+ * Breadth First Search over an undirected graph. The search is Beamer's direction-optimizing
+ * Breadth First Search: while the frontier is small, each level is expanded top-down by scanning
+ * the edges of the frontier vertices. Once the edges leaving the frontier outnumber a fraction of
+ * the edges of the unvisited vertices, it switches to bottom-up steps, where every unvisited
+ * vertex looks for any parent in a bitmap of the frontier and stops at the first one found. It
+ * switches back to top-down when the frontier shrinks again. On low diameter graphs most of the
+ * edges into the large middle levels are never examined.
+ *
+ * parallelBfs is a level-synchronous Breadth First Search for many cores. Each level's frontier
+ * is split into chunks that a ForkJoinPool expands at once. A vertex belongs to the thread that
+ * first sets its bit in a shared atomic visited bitmap, and each chunk collects the vertices it
+ * claimed into its own buffer. The buffers are concatenated into the next frontier.
+ *
+ * bipartition two-colors every connected component with an iterative Breadth First Search and
+ * returns either the coloring or an odd cycle, closed by the first edge found between two
+ * vertices of the same color. parallelIsBipartite splits the edges across threads. Each thread
+ * builds a parity union-find that records whether two vertices need the same or different
+ * colors, and the per-thread forests are merged into one. A graph is bipartite exactly when no
+ * edge joins two vertices that the union-find says need the same color.
+ *
+ * khop streams the vertices within k edges of a vertex to a callback. It stops after level k
+ * and stamps visited vertices with a per-call epoch, so a call only touches that neighborhood.
+ *
+ * Time Complexity: O(V + E)
+ */
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
 
 public class BFS {
 
-	private Queue<Integer> queue;
-	private ArrayList<Integer>[] graph;
-	private int[] edgeTo;
+	private static final int ALPHA = 15; // go bottom-up when frontier edges > unexplored edges / ALPHA
+	private static final int BETA = 18; // go top-down when a shrinking frontier has < V / BETA vertices
+	private static final int SEQUENTIAL_CUTOFF = 1024; // smaller frontiers are expanded by one thread
+
+	private AdjacencyBuilder graph;
+	private int[] edgeTo; // BFS parent of each vertex, the source is its own parent, -1 if unreached
+	private int[] level; // number of edges from the source, -1 if unreached
 	private boolean[] visited;
-	private int[] colors; // 1 == RED, 2 == BLUE
+
+	// k-hop search state, reused across calls
+	private int[] hopSeen; // hopSeen[v] == hopEpoch when v was reached in the current call
+	private int[] hopQueue;
+	private int hopEpoch;
 
 	public BFS(int n) {
-		queue = new ArrayDeque<>();
-		graph = new ArrayList[n + 1];
+		graph = new AdjacencyBuilder(n + 1, false);
 		edgeTo = new int[n + 1];
+		level = new int[n + 1];
 		visited = new boolean[n + 1];
-		colors = new int[n + 1];
-		for (int i = 0; i < graph.length; i++) {
-			graph[i] = new ArrayList<>();
-		}
+		hopSeen = new int[n + 1];
+		hopQueue = new int[n + 1];
 	}
 
 	public void addEdge(int v, int w) {
-		graph[v].add(w);
-		graph[w].add(v);
+		graph.addEdge(v, w);
+		graph.addEdge(w, v);
 	}
 
+	/*
+ 	Compiles the adjacency lists into a CSR snapshot.
+ 	@output the compiled graph.
+ 	*/
+	CSRGraph freeze() {
+		return graph.toCSR();
+	}
 
+	/*
+ 	Direction-optimizing Breadth First Search from v. Fills the parent (edgeTo) and level arrays.
+ 	@param v, source vertex
+ 	*/
 	public void bfs(int v) {
+		CSRGraph g = freeze();
+		int n = g.vertexCount();
+		Arrays.fill(edgeTo, -1);
+		Arrays.fill(level, -1);
+		int[] frontier = new int[n];
+		int[] next = new int[n];
+		long[] frontierBits = new long[(n + 63) >>> 6];
+		long[] nextBits = new long[frontierBits.length];
+
+		edgeTo[v] = v;
+		level[v] = 0;
+		frontier[0] = v;
+		int size = 1;
+		int depth = 0;
+		long frontierEdges = g.degree(v);
+		long unexplored = g.edgeCount() - frontierEdges;
+
+		while (size > 0) {
+			if (frontierEdges > unexplored / ALPHA) {
+				Arrays.fill(frontierBits, 0);
+				for (int i = 0; i < size; i++) {
+					frontierBits[frontier[i] >>> 6] |= 1L << frontier[i];
+				}
+				int previous;
+				do {
+					previous = size;
+					Arrays.fill(nextBits, 0);
+					size = 0;
+					frontierEdges = 0;
+					for (int w = 0; w < n; w++) {
+						if (level[w] != -1) {
+							continue;
+						}
+						for (int e = g.offsets[w]; e < g.offsets[w + 1]; e++) {
+							int u = g.targets[e];
+							if ((frontierBits[u >>> 6] & (1L << u)) != 0) {
+								edgeTo[w] = u;
+								level[w] = depth + 1;
+								nextBits[w >>> 6] |= 1L << w;
+								size++;
+								frontierEdges += g.degree(w);
+								break;
+							}
+						}
+					}
+					depth++;
+					unexplored -= frontierEdges;
+					long[] tmp = frontierBits;
+					frontierBits = nextBits;
+					nextBits = tmp;
+				} while (size > 0 && (size >= previous || size > n / BETA));
 
-		queue.add(v);
-		while (!queue.isEmpty()) {
-			int curr = queue.remove();
-			visited[curr] = true;
-			//System.out.println(curr + " ");
-			for (int i = 0; i < graph[curr].size(); i++) {
-				int vertex = graph[curr].get(i);
-				if (!visited[vertex]) {
-					queue.add(vertex);
-					edgeTo[vertex] = curr;
+				size = 0;
+				for (int i = 0; i < frontierBits.length; i++) {
+					for (long word = frontierBits[i]; word != 0; word &= word - 1) {
+						frontier[size++] = (i << 6) + Long.numberOfTrailingZeros(word);
+					}
 				}
+			} else {
+				int nextSize = 0;
+				frontierEdges = 0;
+				for (int i = 0; i < size; i++) {
+					int u = frontier[i];
+					for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+						int w = g.targets[e];
+						if (level[w] == -1) {
+							edgeTo[w] = u;
+							level[w] = depth + 1;
+							next[nextSize++] = w;
+							frontierEdges += g.degree(w);
+						}
+					}
+				}
+				depth++;
+				unexplored -= frontierEdges;
+				int[] tmp = frontier;
+				frontier = next;
+				next = tmp;
+				size = nextSize;
 			}
 		}
-	}	
 
-	public void findPath(int v, int target) {
-		bfs(v);
+		for (int w = 0; w < n; w++) {
+			visited[w] = level[w] != -1;
+		}
+	}
+
+	/*
+ 	Level-synchronous parallel Breadth First Search from v. Fills the same parent (edgeTo) and
+  	level arrays as bfs. The levels are identical, and each parent is some vertex one level closer.
+ 	@param v, source vertex
+  	@param threads, number of worker threads
+ 	*/
+	public void parallelBfs(int v, int threads) {
+		CSRGraph g = freeze();
+		int n = g.vertexCount();
+		Arrays.fill(edgeTo, -1);
+		Arrays.fill(level, -1);
+		AtomicLongArray claimed = new AtomicLongArray((n + 63) >>> 6);
+		ForkJoinPool pool = new ForkJoinPool(threads);
 
-		ArrayList<Integer> path = new ArrayList<>();
-		int curr = v;
-		for (int i = 0; i < edgeTo.length; i++) {
-			if (edgeTo[i] == curr) {
-				curr = i;
-				path.add(i);
-				if (curr == target) {
-					break;
+		try {
+			claim(claimed, v);
+			edgeTo[v] = v;
+			level[v] = 0;
+			int[] frontier = {v};
+			for (int depth = 1; frontier.length > 0; depth++) {
+				int[] current = frontier;
+				int d = depth;
+				if (current.length < SEQUENTIAL_CUTOFF || threads == 1) {
+					frontier = expand(g, claimed, current, 0, current.length, d);
+					continue;
+				}
+
+				int chunks = threads * 4;
+				int chunkSize = (current.length + chunks - 1) / chunks;
+				List<Callable<int[]>> tasks = new ArrayList<>();
+				for (int from = 0; from < current.length; from += chunkSize) {
+					int lo = from;
+					int hi = Math.min(from + chunkSize, current.length);
+					tasks.add(() -> expand(g, claimed, current, lo, hi, d));
+				}
+				List<int[]> parts = new ArrayList<>();
+				int size = 0;
+				for (Future<int[]> f : pool.invokeAll(tasks)) {
+					int[] part = f.get();
+					parts.add(part);
+					size += part.length;
+				}
+				frontier = new int[size];
+				size = 0;
+				for (int[] part : parts) {
+					System.arraycopy(part, 0, frontier, size, part.length);
+					size += part.length;
 				}
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while expanding a level", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("BFS worker failed", e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+
+		for (int w = 0; w < n; w++) {
+			visited[w] = level[w] != -1;
+		}
+	}
+
+	/*
+ 	Expands frontier[lo .. hi - 1] by one level. Safe to call from several threads at once.
+ 	@param depth, the level of the vertices found
+ 	@output the vertices this call claimed.
+ 	*/
+	private int[] expand(CSRGraph g, AtomicLongArray claimed, int[] frontier, int lo, int hi, int depth) {
+		int[] found = new int[16];
+		int size = 0;
+		for (int i = lo; i < hi; i++) {
+			int u = frontier[i];
+			for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+				int w = g.targets[e];
+				if (claim(claimed, w)) {
+					edgeTo[w] = u;
+					level[w] = depth;
+					if (size == found.length) {
+						found = Arrays.copyOf(found, size * 2);
+					}
+					found[size++] = w;
+				}
+			}
+		}
+		return Arrays.copyOf(found, size);
+	}
+
+	/*
+ 	Sets the bit of w in the visited bitmap.
+ 	@output true if this call set it, false if w was already claimed.
+ 	*/
+	private static boolean claim(AtomicLongArray claimed, int w) {
+		int i = w >>> 6;
+		long bit = 1L << w;
+		long old = claimed.get(i);
+		while ((old & bit) == 0) {
+			if (claimed.compareAndSet(i, old, old | bit)) {
+				return true;
+			}
+			old = claimed.get(i);
+		}
+		return false;
+	}
+
+	/*
+ 	Breadth First Search from v that stops after k levels. Every vertex within k edges of v,
+  	including v, is passed to the visitor once, in order of distance from v.
+ 	@param v, source vertex
+  	@param k, the maximum number of edges from v
+  	@param visitor, receives each vertex found
+  	@output the number of vertices found.
+ 	*/
+	public int khop(int v, int k, IntConsumer visitor) {
+		CSRGraph g = freeze();
+		if (++hopEpoch == Integer.MAX_VALUE) {
+			Arrays.fill(hopSeen, 0);
+			hopEpoch = 1;
+		}
+		int head = 0, tail = 0;
+		hopSeen[v] = hopEpoch;
+		hopQueue[tail++] = v;
+		visitor.accept(v);
+		for (int depth = 0; depth < k && head < tail; depth++) {
+			int levelEnd = tail;
+			while (head < levelEnd) {
+				int u = hopQueue[head++];
+				for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+					int w = g.targets[e];
+					if (hopSeen[w] != hopEpoch) {
+						hopSeen[w] = hopEpoch;
+						hopQueue[tail++] = w;
+						visitor.accept(w);
+					}
+				}
+			}
+		}
+		return tail;
+	}
+
+	/*
+ 	@param v, vertex
+ 	@output the number of edges from the source of the last search to v, or -1 if unreached.
+ 	*/
+	public int getLevel(int v) {
+		return level[v];
+	}
+
+	/*
+ 	@param v, vertex
+ 	@output the vertex before v on the shortest path from the source of the last search,
+ 	the source itself for the source, or -1 if unreached.
+ 	*/
+	public int getParent(int v) {
+		return edgeTo[v];
+	}
+
+	/*
+ 	Prints the vertices after v on a shortest path from v to target.
+ 	@param v, source vertex
+ 	@param target, target vertex
+ 	*/
+	public void findPath(int v, int target) {
+		bfs(v);
+		if (level[target] == -1) {
+			return;
+		}
+
+		int[] path = new int[level[target]];
+		for (int i = path.length - 1, curr = target; i >= 0; i--, curr = edgeTo[curr]) {
+			path[i] = curr;
 		}
 
 		for (int i: path) {
@@ -63,32 +341,281 @@ public class BFS {
 		
 	}
 
+	/*
+ 	@output true if the vertices can be colored with two colors so that no edge joins two
+ 	vertices of the same color.
+ 	*/
 	public boolean isBipartite() {
-		Arrays.fill(colors, 0);
-		boolean ret = colorGraph(0, 1);
-		Arrays.fill(visited, false);
-		return ret;
+		return bipartition().isBipartite();
+	}
+
+	/*
+ 	Two-colors every connected component with an iterative Breadth First Search.
+ 	@output the coloring, or an odd cycle if the graph is not bipartite.
+ 	*/
+	public Bipartition bipartition() {
+		CSRGraph g = freeze();
+		int n = g.vertexCount();
+		int[] colors = new int[n]; // 1 == RED, 2 == BLUE, 0 == not reached yet
+		int[] parent = new int[n];
+		int[] depth = new int[n];
+		int[] queue = new int[n];
+
+		for (int root = 0; root < n; root++) {
+			if (colors[root] != 0) {
+				continue;
+			}
+			int head = 0, tail = 0;
+			colors[root] = 1;
+			parent[root] = root;
+			queue[tail++] = root;
+			while (head < tail) {
+				int u = queue[head++];
+				for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+					int w = g.targets[e];
+					if (colors[w] == 0) {
+						colors[w] = 3 - colors[u];
+						parent[w] = u;
+						depth[w] = depth[u] + 1;
+						queue[tail++] = w;
+					} else if (colors[w] == colors[u]) {
+						return new Bipartition(null, oddCycle(parent, depth, u, w));
+					}
+				}
+			}
+		}
+		return new Bipartition(colors, null);
+	}
+
+	/*
+ 	Closes the tree paths from u and w to their lowest common ancestor with the edge (u, w).
+ 	Both endpoints have the same color, so their depths have the same parity and the cycle is odd.
+ 	@output the cycle's vertices, from u through the common ancestor to w.
+ 	*/
+	private static int[] oddCycle(int[] parent, int[] depth, int u, int w) {
+		int[] up = new int[depth[u] + 1];
+		int[] down = new int[depth[w] + 1];
+		int a = 0, b = 0;
+		int x = u, y = w;
+		while (depth[x] > depth[y]) {
+			up[a++] = x;
+			x = parent[x];
+		}
+		while (depth[y] > depth[x]) {
+			down[b++] = y;
+			y = parent[y];
+		}
+		while (x != y) {
+			up[a++] = x;
+			down[b++] = y;
+			x = parent[x];
+			y = parent[y];
+		}
+		up[a++] = x;
+		int[] cycle = Arrays.copyOf(up, a + b);
+		for (int i = 0; i < b; i++) {
+			cycle[a + i] = down[b - 1 - i];
+		}
+		return cycle;
+	}
+
+	/*
+ 	Checks bipartiteness on several threads with parity union-finds. The colors are the parities
+ 	of the vertices relative to the roots of their components. If the graph is not bipartite, the
+ 	odd cycle is found by the sequential bipartition.
+ 	@param threads, number of worker threads
+ 	@output the coloring, or an odd cycle if the graph is not bipartite.
+ 	*/
+	public Bipartition parallelBipartition(int threads) {
+		CSRGraph g = freeze();
+		int n = g.vertexCount();
+		int m = g.edgeCount();
+		int chunks = Math.max(1, Math.min(threads, m / SEQUENTIAL_CUTOFF));
+		int chunkSize = Math.max(1, (m + chunks - 1) / chunks);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		ParityUnionFind merged = null;
+
+		try {
+			List<Callable<ParityUnionFind>> tasks = new ArrayList<>();
+			for (int from = 0; from < m; from += chunkSize) {
+				int lo = from;
+				int hi = Math.min(from + chunkSize, m);
+				tasks.add(() -> unionEdges(g, lo, hi));
+			}
+			for (Future<ParityUnionFind> f : pool.invokeAll(tasks)) {
+				ParityUnionFind part = f.get();
+				if (part == null) {
+					return bipartition();
+				}
+				if (merged == null) {
+					merged = part;
+				} else if (!merged.absorb(part)) {
+					return bipartition();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while checking bipartiteness", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Bipartite worker failed", e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+
+		if (merged == null) {
+			merged = new ParityUnionFind(n);
+		}
+		int[] colors = new int[n];
+		for (int v = 0; v < n; v++) {
+			merged.find(v);
+			colors[v] = merged.lastParity + 1;
+		}
+		return new Bipartition(colors, null);
+	}
+
+	/*
+ 	@param threads, number of worker threads
+ 	@output true if the graph is bipartite, checked with parallelBipartition.
+ 	*/
+	public boolean parallelIsBipartite(int threads) {
+		return parallelBipartition(threads).isBipartite();
 	}
 
-	private boolean colorGraph(int vertex, int color) {
-		boolean fin = true;
-		if (visited[vertex] && colors[vertex] != color) {
-			return false;
-		} else if (visited[vertex] && colors[vertex] == color) {
+	/*
+ 	Requires the endpoints of every edge in targets[lo .. hi - 1] to have different colors.
+ 	Each undirected edge is stored twice, so only the copy with u <= w is used.
+ 	@output the union-find of the edges, or null if they contain an odd cycle.
+ 	*/
+	private static ParityUnionFind unionEdges(CSRGraph g, int lo, int hi) {
+		ParityUnionFind uf = new ParityUnionFind(g.vertexCount());
+		if (lo >= hi) {
+			return uf;
+		}
+		// the vertex that owns edge lo is the last u with offsets[u] <= lo
+		int u = Arrays.binarySearch(g.offsets, lo);
+		if (u < 0) {
+			u = -u - 2;
+		}
+		while (g.offsets[u + 1] <= lo) {
+			u++;
+		}
+		for (int e = lo; e < hi; e++) {
+			while (g.offsets[u + 1] <= e) {
+				u++;
+			}
+			int w = g.targets[e];
+			if (u <= w && !uf.union(u, w, 1)) {
+				return null;
+			}
+		}
+		return uf;
+	}
+
+	/* The result of a bipartiteness check. */
+	public static class Bipartition {
+		private int[] colors;
+		private int[] oddCycle;
+
+		private Bipartition(int[] colors, int[] oddCycle) {
+			this.colors = colors;
+			this.oddCycle = oddCycle;
+		}
+
+		public boolean isBipartite() {
+			return oddCycle == null;
+		}
+
+		/* @output colors[v] is 1 (RED) or 2 (BLUE), null if the graph is not bipartite. */
+		public int[] getColors() {
+			return colors;
+		}
+
+		/*
+ 		@output the vertices of an odd cycle in order, the last one adjacent to the first,
+ 		or null if the graph is bipartite.
+ 		*/
+		public int[] getOddCycle() {
+			return oddCycle;
+		}
+	}
+
+	/*
+ 	Union-find that also stores the parity of each vertex relative to its parent, so the
+ 	parity between any two vertices of a set is the xor of their parities to the root.
+ 	*/
+	private static class ParityUnionFind {
+		private int[] parent;
+		private int[] parity;
+		private int[] size;
+		private int lastParity; // parity to the root found by the last find
+
+		private ParityUnionFind(int n) {
+			parent = new int[n];
+			parity = new int[n];
+			size = new int[n];
+			for (int v = 0; v < n; v++) {
+				parent[v] = v;
+				size[v] = 1;
+			}
+		}
+
+		/* @output the root of v, with the parity of v to it in lastParity. */
+		private int find(int v) {
+			int root = v, p = 0;
+			while (parent[root] != root) {
+				p ^= parity[root];
+				root = parent[root];
+			}
+			// compress the path, each vertex's parity to the root is what remains of p
+			int rest = p;
+			while (parent[v] != root && v != root) {
+				int next = parent[v];
+				int own = parity[v];
+				parent[v] = root;
+				parity[v] = rest;
+				rest ^= own;
+				v = next;
+			}
+			lastParity = p;
+			return root;
+		}
+
+		/*
+ 		Records that the parities of a and b differ by d.
+ 		@output false if that contradicts what is already recorded.
+ 		*/
+		private boolean union(int a, int b, int d) {
+			int ra = find(a);
+			int pa = lastParity;
+			int rb = find(b);
+			int pb = lastParity;
+			if (ra == rb) {
+				return (pa ^ pb) == d;
+			}
+			if (size[ra] < size[rb]) {
+				int tmp = ra;
+				ra = rb;
+				rb = tmp;
+			}
+			parent[rb] = ra;
+			parity[rb] = pa ^ pb ^ d;
+			size[ra] += size[rb];
 			return true;
-		} else if (!visited[vertex]) {
-			visited[vertex] = true;
-			colors[vertex] = color;
-			for (int i = 0; i < graph[vertex].size(); i++) {
-				int v = graph[vertex].get(i);
-				if (color == 1) {
-					fin &= colorGraph(v, 2);
-				} else {
-					fin &= colorGraph(v, 1);
+		}
+
+		/*
+ 		Adds every relation recorded in other. Each vertex's link to its parent in other
+ 		is a relation between the two, so merging the links merges the whole forest.
+ 		@output false if the relations contradict each other.
+ 		*/
+		private boolean absorb(ParityUnionFind other) {
+			for (int v = 0; v < parent.length; v++) {
+				if (other.parent[v] != v && !union(v, other.parent[v], other.parity[v])) {
+					return false;
 				}
 			}
+			return true;
 		}
-		return fin;
 	}
 
 	public static void main(String[] args) {
@@ -106,6 +633,10 @@ public class BFS {
 		//graph.bfs(0);
 		//graph.findPath(0, 9);
 		System.out.println("is graph bipartite ? " + graph.isBipartite());
+		graph.bfs(0);
+		System.out.println("level of 9 " + graph.getLevel(9) + ", parent " + graph.getParent(9));
+		graph.parallelBfs(0, 4);
+		System.out.println("level of 9 " + graph.getLevel(9) + ", parent " + graph.getParent(9));
 		BFS graph2 = new BFS(10);
 		graph2.addEdge(0, 1);
 		graph2.addEdge(1, 2);
@@ -118,6 +649,11 @@ public class BFS {
 		graph2.addEdge(5, 8);
 		graph2.addEdge(8, 9);
 		System.out.println("is graph2 bipartite ? " + graph2.isBipartite());
+		System.out.println("odd cycle " + Arrays.toString(graph.bipartition().getOddCycle()));
+		System.out.println("parallel " + graph.parallelIsBipartite(4) + " " + graph2.parallelIsBipartite(4));
+		StringBuilder hops = new StringBuilder();
+		graph2.khop(2, 2, w -> hops.append(w).append(' '));
+		System.out.println("within 2 hops of 2: " + hops);
 
 	}
 }
@@ -11,18 +11,17 @@ import java.util.*;
 
 public class Bridges {
 	
-	private HashMap<Integer, ArrayList<Integer>> graph; // directed graph
+	private AdjacencyBuilder graph; // directed graph
 	private boolean[] visited;
 	private int[] ids;
 	private int[] low_link;
 	private int UID;
-	private ArrayList<Integer> bridges;
+	private IntArrayList bridges;
 
 	/*
  	@param n, size of the graph.
   	*/
 	public Bridges(int n) {
-		graph = new HashMap<>();
 		createGraph(n);
 	}
 
@@ -31,9 +30,7 @@ public class Bridges {
 	@param n, number of vertices in the graph
 	*/
 	public void createGraph(int n) {
-		for (int i = 0; i < n + 1; i++) {
-			graph.put(i, new ArrayList<>());
-		}
+		graph = new AdjacencyBuilder(n + 1, false);
 	}
 
 	/*
@@ -42,7 +39,7 @@ public class Bridges {
 	@param v, vertex
 	*/
 	public void addEdge(int u, int v) {
-		graph.get(u).add(v);
+		graph.addEdge(u, v);
 	}
 
 	/*
@@ -58,9 +55,8 @@ public class Bridges {
 			ids[node] = UID;
 			low_link[node] = ids[node];
 			UID++;
-			ArrayList<Integer> edges = graph.get(node);
-			for (int i = 0; i < edges.size(); i++) {
-				int vertex = edges.get(i);
+			for (int i = 0; i < graph.degree(node); i++) {
+				int vertex = graph.target(node, i);
 				if (!visited[vertex]) {
 					dfs(vertex);
 					low_link[node] = Math.min(low_link[node], low_link[vertex]); // did the dfs find a smaller UID
@@ -79,16 +75,17 @@ public class Bridges {
 	Finds all bridges in the current graph and prints them out.
 	*/
 	public void findBridges() {
-		visited = new boolean[graph.size() + 1];
-		ids = new int[graph.size() + 1];
-		low_link = new int[graph.size() + 1];
+		int n = graph.vertexCount();
+		visited = new boolean[n + 1];
+		ids = new int[n + 1];
+		low_link = new int[n + 1];
 
-		bridges = new ArrayList<>();
+		bridges = new IntArrayList();
 		Arrays.fill(ids, Integer.MAX_VALUE);
 		Arrays.fill(low_link, Integer.MAX_VALUE);
 		UID = 0;
 
-		for (int i = 0; i < graph.size(); i++) {
+		for (int i = 0; i < n; i++) {
 			if (!visited[i]) {
 				dfs(i);
 			}
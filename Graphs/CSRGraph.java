@@ -0,0 +1,73 @@
+/**
+ * Immutable Compressed Sparse Row (CSR) snapshot of a directed graph. The edges leaving
+ * vertex u are stored contiguously in targets[offsets[u] .. offsets[u + 1] - 1], with the
+ * matching edge weights at the same indices in weights. Scanning the edges of a vertex is a
+ * sequential walk over two int arrays, and each edge costs 8 bytes.
+ *
+ * Time Complexity: O(1) to locate the edges of a vertex
+ */
+import java.util.Arrays;
+
+public class CSRGraph {
+
+	final int n; // number of vertices
+	final int[] offsets; // length n + 1
+	final int[] targets; // length E
+	final int[] weights; // length E, null for unweighted graphs
+
+	/*
+	@param offsets, offsets[u] is the index of the first edge of u, offsets[n] is the edge count
+	@param targets, the endpoint of each edge
+	@param weights, the weight of each edge, or null if the graph is unweighted
+	*/
+	public CSRGraph(int[] offsets, int[] targets, int[] weights) {
+		this.n = offsets.length - 1;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+	}
+
+	public int vertexCount() {
+		return n;
+	}
+
+	public int edgeCount() {
+		return offsets[n];
+	}
+
+	/*
+	@param u, vertex
+	@output the number of edges leaving u
+	*/
+	public int degree(int u) {
+		return offsets[u + 1] - offsets[u];
+	}
+
+	/*
+	Builds the transpose of this graph, where every edge u -> v becomes v -> u with the same weight.
+	@output the reversed graph.
+	*/
+	public CSRGraph reverse() {
+		int[] rOffsets = new int[n + 1];
+		int m = offsets[n];
+		for (int e = 0; e < m; e++) {
+			rOffsets[targets[e] + 1]++;
+		}
+		for (int v = 0; v < n; v++) {
+			rOffsets[v + 1] += rOffsets[v];
+		}
+		int[] next = Arrays.copyOf(rOffsets, n);
+		int[] rTargets = new int[m];
+		int[] rWeights = weights == null ? null : new int[m];
+		for (int u = 0; u < n; u++) {
+			for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+				int slot = next[targets[e]]++;
+				rTargets[slot] = u;
+				if (rWeights != null) {
+					rWeights[slot] = weights[e];
+				}
+			}
+		}
+		return new CSRGraph(rOffsets, rTargets, rWeights);
+	}
+}
@@ -0,0 +1,261 @@
+/**
+ * Parallel connected components labeling of an undirected graph with the Afforest algorithm
+ * (Sutton, Ben-Nun and Barak), a refinement of Shiloach-Vishkin. Every vertex starts as its own
+ * tree in a label array. Linking an edge hooks the root with the larger id under the root with
+ * the smaller id using compareAndSet, and pointer jumping (compress) makes every vertex point
+ * straight at its root. Afforest first links only the first NEIGHBOR_ROUNDS edges of every
+ * vertex, which is usually enough to join most of a large component. It then samples the labels
+ * to find that component and skips its vertices when linking the remaining edges, which is safe
+ * because every edge is stored in both directions and is linked from its other endpoint.
+ *
+ * Roots only ever hook under smaller ids, so each finished label is the smallest vertex of its
+ * component.
+ *
+ * Time Complexity: O((V + E) * log(V)) work worst case, close to O(V + E) in practice
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ConnectedComponents {
+	private static final int NEIGHBOR_ROUNDS = 2;
+	private static final int SAMPLES = 1024;
+	private static final int SEQUENTIAL_CUTOFF = 4096; // smaller ranges run on one thread
+
+	private DFS dfs;
+	private int threads;
+
+	private CSRGraph graph;
+	private AtomicIntegerArray comp;
+	private ForkJoinPool pool;
+
+	private int[] labels;
+	private int[] sizes;
+	private int count;
+
+	/*
+	@param dfs, the undirected graph
+	@param threads, number of worker threads
+	*/
+	public ConnectedComponents(DFS dfs, int threads) {
+		this.dfs = dfs;
+		this.threads = threads;
+	}
+
+	/*
+	Labels the connected components of the graph.
+	@output labels[v], the smallest vertex in the component of v.
+	*/
+	public int[] compute() {
+		graph = dfs.freeze();
+		int n = graph.vertexCount();
+		comp = new AtomicIntegerArray(n);
+		pool = new ForkJoinPool(threads);
+
+		try {
+			parallelFor(n, (lo, hi) -> {
+				for (int v = lo; v < hi; v++) {
+					comp.set(v, v);
+				}
+			});
+
+			for (int r = 0; r < NEIGHBOR_ROUNDS; r++) {
+				int round = r;
+				parallelFor(n, (lo, hi) -> {
+					for (int u = lo; u < hi; u++) {
+						int e = graph.offsets[u] + round;
+						if (e < graph.offsets[u + 1]) {
+							link(u, graph.targets[e]);
+						}
+					}
+				});
+				compress();
+			}
+
+			int largest = sampleFrequentLabel(n);
+			parallelFor(n, (lo, hi) -> {
+				for (int u = lo; u < hi; u++) {
+					if (comp.get(u) == largest) {
+						continue;
+					}
+					for (int e = graph.offsets[u] + NEIGHBOR_ROUNDS; e < graph.offsets[u + 1]; e++) {
+						link(u, graph.targets[e]);
+					}
+				}
+			});
+			compress();
+		} finally {
+			pool.shutdown();
+		}
+
+		labels = new int[n];
+		sizes = new int[n];
+		count = 0;
+		for (int v = 0; v < n; v++) {
+			labels[v] = comp.get(v);
+			if (sizes[labels[v]]++ == 0) {
+				count++;
+			}
+		}
+		return labels;
+	}
+
+	/*
+	Hooks the trees of u and v together, the root with the larger id under the other.
+	Safe to call from several threads at once.
+	*/
+	private void link(int u, int v) {
+		int p1 = comp.get(u);
+		int p2 = comp.get(v);
+		while (p1 != p2) {
+			int high = Math.max(p1, p2);
+			int low = Math.min(p1, p2);
+			int pHigh = comp.get(high);
+			if (pHigh == low || (pHigh == high && comp.compareAndSet(high, high, low))) {
+				break;
+			}
+			p1 = comp.get(comp.get(high));
+			p2 = comp.get(low);
+		}
+	}
+
+	/*
+	Pointer jumping: points every vertex directly at the root of its tree.
+	*/
+	private void compress() {
+		parallelFor(graph.vertexCount(), (lo, hi) -> {
+			for (int v = lo; v < hi; v++) {
+				while (comp.get(v) != comp.get(comp.get(v))) {
+					comp.set(v, comp.get(comp.get(v)));
+				}
+			}
+		});
+	}
+
+	/*
+	@output the most common label among a random sample of vertices, most likely the
+	label of the largest component.
+	*/
+	private int sampleFrequentLabel(int n) {
+		if (n == 0) {
+			return -1;
+		}
+		HashMap<Integer, Integer> counts = new HashMap<>();
+		Random random = new Random(n);
+		int best = comp.get(0), bestCount = 0;
+		for (int i = 0; i < SAMPLES; i++) {
+			int label = comp.get(random.nextInt(n));
+			int c = counts.merge(label, 1, Integer::sum);
+			if (c > bestCount) {
+				bestCount = c;
+				best = label;
+			}
+		}
+		return best;
+	}
+
+	/*
+	Splits the range [0, n) into chunks and runs them on the worker threads.
+	@param n, size of the range
+	@param body, the work for one chunk
+	*/
+	private void parallelFor(int n, RangeTask body) {
+		if (n < SEQUENTIAL_CUTOFF || threads == 1) {
+			body.run(0, n);
+			return;
+		}
+		int chunks = threads * 4;
+		int chunkSize = (n + chunks - 1) / chunks;
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int from = 0; from < n; from += chunkSize) {
+			int lo = from;
+			int hi = Math.min(from + chunkSize, n);
+			tasks.add(() -> {
+				body.run(lo, hi);
+				return null;
+			});
+		}
+		try {
+			for (Future<Void> f : pool.invokeAll(tasks)) {
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while labeling components", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Component worker failed", e.getCause());
+		}
+	}
+
+	/*
+	@param v, vertex
+	@output the number of vertices in the component of v, from the last compute.
+	*/
+	public int sizeOf(int v) {
+		return sizes[labels[v]];
+	}
+
+	/* @output sizes[label], the number of vertices with that label, 0 if label is not a label. */
+	public int[] getSizes() {
+		return sizes;
+	}
+
+	/* @output the number of components found by the last compute. */
+	public int componentCount() {
+		return count;
+	}
+
+	/*
+	Labels the components with compute and with sequential depth first searches, and compares.
+	@output true if both found the same labels.
+	*/
+	public boolean verify() {
+		int[] parallel = compute();
+		int[] sequential = new int[parallel.length];
+		IterativeDFS search = new IterativeDFS(graph);
+		for (int root = 0; root < sequential.length; root++) {
+			int label = root;
+			search.run(root, new IterativeDFS.Visitor() {
+				public void discover(int v) {
+					sequential[v] = label;
+				}
+			});
+		}
+		return Arrays.equals(parallel, sequential);
+	}
+
+	/* Work on the index range [lo, hi). */
+	private interface RangeTask {
+		void run(int lo, int hi);
+	}
+
+	public static void main(String[] args) {
+		DFS graph = new DFS(10);
+		graph.addEdge(0, 1);
+		graph.addEdge(1, 2);
+		graph.addEdge(2, 3);
+		graph.addEdge(2, 4);
+		graph.addEdge(7, 4);
+		graph.addEdge(3, 6);
+		graph.addEdge(5, 8);
+		graph.addEdge(8, 9);
+
+		ConnectedComponents cc = new ConnectedComponents(graph, 4);
+		System.out.println(Arrays.toString(cc.compute()));
+		System.out.println(cc.componentCount() + " components, " + cc.sizeOf(9) + " vertices with 9");
+		System.out.println("verified " + cc.verify());
+		// Example Output
+		/*
+		[0, 0, 0, 0, 0, 5, 0, 0, 5, 5, 10]
+		3 components, 3 vertices with 9
+		verified true
+		*/
+	}
+}
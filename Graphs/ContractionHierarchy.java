@@ -0,0 +1,594 @@
+/**
+ * Implementation of Contraction Hierarchies for fast point-to-point shortest path queries on
+ * road-like graphs. Preprocessing removes ("contracts") the vertices one at a time, least
+ * important first. When v is contracted, every path u -> v -> x that is the only shortest path
+ * from u to x is replaced by a shortcut edge u -> x with the combined weight. A local Dijkstra
+ * search from u that avoids v (a witness search) decides whether another path is as short.
+ * Vertex importance is estimated by the number of shortcuts the contraction would add minus
+ * the edges it removes, plus the number of neighbors that are already contracted, and it is
+ * re-evaluated lazily when a vertex reaches the front of the queue.
+ *
+ * The order of contraction is the vertex's rank. A query runs Dijkstra's Algorithm forwards
+ * from s using only edges that go up in rank and backwards from t using only edges that come
+ * down in rank. Every shortest path has a highest vertex, so both searches meet there while
+ * only ever exploring the small set of vertices above s and t. Shortcuts remember the vertex
+ * they bypass so that a path can be unpacked back into the original edges.
+ *
+ * Time Complexity: preprocessing depends on the graph, queries settle O(hierarchy height) vertices
+ */
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+public class ContractionHierarchy {
+	private static final int MAGIC = 0x43483031; // "CH01"
+	private static final int INF = Integer.MAX_VALUE;
+	private static final int WITNESS_SETTLE_LIMIT = 200; // vertices settled per witness search
+
+	private int n;
+	private int[] rank; // order in which the vertices were contracted
+	private CSRGraph up; // edges u -> x with rank[u] < rank[x]
+	private int[] upMiddle; // bypassed vertex of each up edge, -1 for an original edge
+	private CSRGraph down; // edges u -> x with rank[u] > rank[x], stored at x with target u
+	private int[] downMiddle; // bypassed vertex of each down edge, -1 for an original edge
+
+	// query workspace, index 0 is the forward search and 1 the backward search
+	private int[][] distance;
+	private int[][] parent; // vertex the search reached v from
+	private int[] stamp; // bit 0 / bit 1 set when reached by the forward / backward search
+	private int[] stampEpoch;
+	private int epoch;
+	private IndexedDHeap[] pq;
+	private int meet; // highest vertex of the last query's shortest path, or -1
+
+	private ContractionHierarchy(int n, int[] rank, CSRGraph up, int[] upMiddle, CSRGraph down, int[] downMiddle) {
+		this.n = n;
+		this.rank = rank;
+		this.up = up;
+		this.upMiddle = upMiddle;
+		this.down = down;
+		this.downMiddle = downMiddle;
+		distance = new int[2][n];
+		parent = new int[2][n];
+		stamp = new int[n];
+		stampEpoch = new int[n];
+		pq = new IndexedDHeap[] {new IndexedDHeap(n), new IndexedDHeap(n)};
+	}
+
+	/*
+	Contracts every vertex of the graph and builds the upward and downward search graphs.
+	@param dj, the graph
+	@output the contraction hierarchy for the graph.
+	*/
+	public static ContractionHierarchy build(Dijkstra dj) {
+		CSRGraph g = dj.freeze();
+		Contractor c = new Contractor(g);
+		c.contractAll();
+
+		int n = g.vertexCount();
+		int[] upOffsets = new int[n + 1];
+		int[] downOffsets = new int[n + 1];
+		for (int u = 0; u < n; u++) {
+			EdgeList out = c.out[u];
+			for (int i = 0; i < out.size; i++) {
+				if (c.rank[u] < c.rank[out.to[i]]) {
+					upOffsets[u + 1]++;
+				} else {
+					downOffsets[out.to[i] + 1]++;
+				}
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			upOffsets[v + 1] += upOffsets[v];
+			downOffsets[v + 1] += downOffsets[v];
+		}
+
+		int[] upTargets = new int[upOffsets[n]];
+		int[] upWeights = new int[upOffsets[n]];
+		int[] upMiddle = new int[upOffsets[n]];
+		int[] downTargets = new int[downOffsets[n]];
+		int[] downWeights = new int[downOffsets[n]];
+		int[] downMiddle = new int[downOffsets[n]];
+		int[] upNext = Arrays.copyOf(upOffsets, n);
+		int[] downNext = Arrays.copyOf(downOffsets, n);
+		for (int u = 0; u < n; u++) {
+			EdgeList out = c.out[u];
+			for (int i = 0; i < out.size; i++) {
+				int x = out.to[i];
+				if (c.rank[u] < c.rank[x]) {
+					int e = upNext[u]++;
+					upTargets[e] = x;
+					upWeights[e] = out.weight[i];
+					upMiddle[e] = out.middle[i];
+				} else {
+					int e = downNext[x]++;
+					downTargets[e] = u;
+					downWeights[e] = out.weight[i];
+					downMiddle[e] = out.middle[i];
+				}
+			}
+		}
+		return new ContractionHierarchy(n, c.rank,
+			new CSRGraph(upOffsets, upTargets, upWeights), upMiddle,
+			new CSRGraph(downOffsets, downTargets, downWeights), downMiddle);
+	}
+
+	/*
+	Calculates the distance of the shortest path from s to t. Not safe to call from several
+	threads at once.
+	@param s, start vertex
+	@param t, target vertex
+	@output the distance from s to t, or Integer.MAX_VALUE if t is unreachable.
+	*/
+	public int distance(int s, int t) {
+		return search(s, t);
+	}
+
+	/*
+	Calculates the shortest path from s to t and unpacks its shortcuts into original edges.
+	@param s, start vertex
+	@param t, target vertex
+	@output the vertices of the path from s to t, or an empty array if t is unreachable.
+	*/
+	public int[] path(int s, int t) {
+		if (search(s, t) == INF) {
+			return new int[0];
+		}
+
+		// chain of hierarchy vertices s .. meet .. t
+		int[] chain = new int[8];
+		int length = 0;
+		for (int v = meet; ; v = parent[0][v]) {
+			if (length == chain.length) {
+				chain = Arrays.copyOf(chain, length * 2);
+			}
+			chain[length++] = v;
+			if (v == s) {
+				break;
+			}
+		}
+		for (int i = 0, j = length - 1; i < j; i++, j--) {
+			int tmp = chain[i];
+			chain[i] = chain[j];
+			chain[j] = tmp;
+		}
+		for (int v = meet; v != t; ) {
+			v = parent[1][v];
+			if (length == chain.length) {
+				chain = Arrays.copyOf(chain, length * 2);
+			}
+			chain[length++] = v;
+		}
+
+		// unpack each hierarchy edge of the chain
+		int[] path = new int[8];
+		int size = 0;
+		path[size++] = s;
+		int[] stack = new int[16];
+		for (int j = 0; j + 1 < length; j++) {
+			int top = 0;
+			stack[top++] = chain[j];
+			stack[top++] = chain[j + 1];
+			while (top > 0) {
+				int b = stack[--top];
+				int a = stack[--top];
+				int middle = middleOf(a, b);
+				if (middle == -1) {
+					if (size == path.length) {
+						path = Arrays.copyOf(path, size * 2);
+					}
+					path[size++] = b;
+				} else {
+					if (top + 4 > stack.length) {
+						stack = Arrays.copyOf(stack, stack.length * 2);
+					}
+					// push the second half first so the first half is unpacked first
+					stack[top++] = middle;
+					stack[top++] = b;
+					stack[top++] = a;
+					stack[top++] = middle;
+				}
+			}
+		}
+		return Arrays.copyOf(path, size);
+	}
+
+	/*
+	Runs the upward forward search from s and the upward backward search from t until neither
+	frontier can improve on the best meeting point.
+	@output the distance from s to t, or Integer.MAX_VALUE if t is unreachable.
+	*/
+	private int search(int s, int t) {
+		epoch++;
+		if (epoch == Integer.MAX_VALUE) {
+			Arrays.fill(stampEpoch, 0);
+			epoch = 1;
+		}
+		pq[0].clear();
+		pq[1].clear();
+		reach(0, s, 0, -1);
+		reach(1, t, 0, -1);
+		pq[0].insert(s, 0);
+		pq[1].insert(t, 0);
+		CSRGraph[] graphs = {up, down};
+		long best = INF;
+		meet = -1;
+
+		while (true) {
+			boolean forward = !pq[0].isEmpty() && pq[0].minPriority() < best;
+			boolean backward = !pq[1].isEmpty() && pq[1].minPriority() < best;
+			if (!forward && !backward) {
+				break;
+			}
+			int d = forward && (!backward || pq[0].minPriority() <= pq[1].minPriority()) ? 0 : 1;
+			int v = pq[d].pollMin();
+			int dv = distance[d][v];
+			if (reached(1 - d, v)) {
+				long total = (long) dv + distance[1 - d][v];
+				if (total < best) {
+					best = total;
+					meet = v;
+				}
+			}
+
+			CSRGraph g = graphs[d];
+			for (int e = g.offsets[v]; e < g.offsets[v + 1]; e++) {
+				int x = g.targets[e];
+				int newDistance = dv + g.weights[e];
+				if (!reached(d, x) || newDistance < distance[d][x]) {
+					reach(d, x, newDistance, v);
+					pq[d].insertOrDecrease(x, newDistance);
+				}
+			}
+		}
+		return (int) best;
+	}
+
+	private boolean reached(int d, int v) {
+		return stampEpoch[v] == epoch && (stamp[v] & (1 << d)) != 0;
+	}
+
+	private void reach(int d, int v, int dist, int from) {
+		if (stampEpoch[v] != epoch) {
+			stampEpoch[v] = epoch;
+			stamp[v] = 0;
+		}
+		stamp[v] |= 1 << d;
+		distance[d][v] = dist;
+		parent[d][v] = from;
+	}
+
+	/*
+	@param a, vertex
+	@param b, vertex with an edge a -> b in the hierarchy
+	@output the vertex bypassed by the lightest edge a -> b, or -1 if it is an original edge.
+	*/
+	private int middleOf(int a, int b) {
+		CSRGraph g;
+		int[] middles;
+		int from, to;
+		if (rank[a] < rank[b]) {
+			g = up;
+			middles = upMiddle;
+			from = a;
+			to = b;
+		} else {
+			g = down;
+			middles = downMiddle;
+			from = b;
+			to = a;
+		}
+		int best = -1;
+		for (int e = g.offsets[from]; e < g.offsets[from + 1]; e++) {
+			if (g.targets[e] == to && (best == -1 || g.weights[e] < g.weights[best])) {
+				best = e;
+			}
+		}
+		return middles[best];
+	}
+
+	public int[] getRank() {
+		return rank;
+	}
+
+	/*
+	Writes the hierarchy to a binary file.
+	@param path, file path
+	*/
+	public void save(String path) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(n);
+			writeArray(out, rank);
+			writeArray(out, up.offsets);
+			writeArray(out, up.targets);
+			writeArray(out, up.weights);
+			writeArray(out, upMiddle);
+			writeArray(out, down.offsets);
+			writeArray(out, down.targets);
+			writeArray(out, down.weights);
+			writeArray(out, downMiddle);
+		}
+	}
+
+	/*
+	Reads a hierarchy written by save.
+	@param path, file path
+	@output the contraction hierarchy.
+	*/
+	public static ContractionHierarchy load(String path) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a contraction hierarchy file: " + path);
+			}
+			int n = in.readInt();
+			int[] rank = readArray(in);
+			CSRGraph up = new CSRGraph(readArray(in), readArray(in), readArray(in));
+			int[] upMiddle = readArray(in);
+			CSRGraph down = new CSRGraph(readArray(in), readArray(in), readArray(in));
+			int[] downMiddle = readArray(in);
+			return new ContractionHierarchy(n, rank, up, upMiddle, down, downMiddle);
+		}
+	}
+
+	private static void writeArray(DataOutputStream out, int[] a) throws IOException {
+		out.writeInt(a.length);
+		for (int i = 0; i < a.length; i++) {
+			out.writeInt(a[i]);
+		}
+	}
+
+	private static int[] readArray(DataInputStream in) throws IOException {
+		int[] a = new int[in.readInt()];
+		for (int i = 0; i < a.length; i++) {
+			a[i] = in.readInt();
+		}
+		return a;
+	}
+
+	/* Growable list of the edges of one vertex while the graph is being contracted. */
+	private static class EdgeList {
+		private int[] to = new int[4];
+		private int[] weight = new int[4];
+		private int[] middle = new int[4];
+		private int size;
+
+		private void add(int x, int w, int m) {
+			if (size == to.length) {
+				to = Arrays.copyOf(to, size * 2);
+				weight = Arrays.copyOf(weight, size * 2);
+				middle = Arrays.copyOf(middle, size * 2);
+			}
+			to[size] = x;
+			weight[size] = w;
+			middle[size] = m;
+			size++;
+		}
+
+		private int indexOf(int x) {
+			for (int i = 0; i < size; i++) {
+				if (to[i] == x) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+	/* Preprocessing state: the graph with shortcuts, the contraction order and witness searches. */
+	private static class Contractor {
+		private int n;
+		private EdgeList[] out, in; // edges to and from contracted vertices are kept for the final graph
+		private boolean[] contracted;
+		private int[] deletedNeighbors;
+		private int[] rank;
+
+		private int[] witnessDistance, witnessStamp;
+		private int witnessEpoch;
+		private IndexedDHeap witnessPq;
+
+		private Contractor(CSRGraph g) {
+			n = g.vertexCount();
+			out = new EdgeList[n];
+			in = new EdgeList[n];
+			for (int v = 0; v < n; v++) {
+				out[v] = new EdgeList();
+				in[v] = new EdgeList();
+			}
+			for (int u = 0; u < n; u++) {
+				for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+					if (g.targets[e] != u) {
+						addEdge(u, g.targets[e], g.weights[e], -1);
+					}
+				}
+			}
+			contracted = new boolean[n];
+			deletedNeighbors = new int[n];
+			rank = new int[n];
+			witnessDistance = new int[n];
+			witnessStamp = new int[n];
+			witnessPq = new IndexedDHeap(n);
+		}
+
+		/*
+		Adds the edge u -> x, or lowers the weight of an existing edge u -> x.
+		*/
+		private void addEdge(int u, int x, int w, int middle) {
+			int i = out[u].indexOf(x);
+			if (i == -1) {
+				out[u].add(x, w, middle);
+				in[x].add(u, w, middle);
+			} else if (w < out[u].weight[i]) {
+				out[u].weight[i] = w;
+				out[u].middle[i] = middle;
+				int j = in[x].indexOf(u);
+				in[x].weight[j] = w;
+				in[x].middle[j] = middle;
+			}
+		}
+
+		private void contractAll() {
+			IndexedDHeap order = new IndexedDHeap(n);
+			for (int v = 0; v < n; v++) {
+				order.insert(v, priority(v));
+			}
+			int next = 0;
+			while (!order.isEmpty()) {
+				int v = order.pollMin();
+				// the stored priority may be outdated, contract v only if it is still the smallest
+				long p = priority(v);
+				if (!order.isEmpty() && p > order.minPriority()) {
+					order.insert(v, p);
+					continue;
+				}
+				contract(v, false);
+				contracted[v] = true;
+				rank[v] = next++;
+				for (int i = 0; i < in[v].size; i++) {
+					deletedNeighbors[in[v].to[i]]++;
+				}
+				for (int i = 0; i < out[v].size; i++) {
+					deletedNeighbors[out[v].to[i]]++;
+				}
+			}
+		}
+
+		/*
+		@output the importance of v: shortcuts added minus edges removed plus contracted neighbors.
+		*/
+		private long priority(int v) {
+			int removed = 0;
+			for (int i = 0; i < in[v].size; i++) {
+				if (!contracted[in[v].to[i]]) {
+					removed++;
+				}
+			}
+			for (int i = 0; i < out[v].size; i++) {
+				if (!contracted[out[v].to[i]]) {
+					removed++;
+				}
+			}
+			return (long) contract(v, true) - removed + deletedNeighbors[v];
+		}
+
+		/*
+		Finds the shortcuts needed to contract v and adds them unless simulate is set.
+		@output the number of shortcuts.
+		*/
+		private int contract(int v, boolean simulate) {
+			int shortcuts = 0;
+			EdgeList incoming = in[v];
+			EdgeList outgoing = out[v];
+			for (int i = 0; i < incoming.size; i++) {
+				int u = incoming.to[i];
+				if (contracted[u]) {
+					continue;
+				}
+				int w1 = incoming.weight[i];
+				int maxW2 = -1;
+				for (int j = 0; j < outgoing.size; j++) {
+					int x = outgoing.to[j];
+					if (!contracted[x] && x != u) {
+						maxW2 = Math.max(maxW2, outgoing.weight[j]);
+					}
+				}
+				if (maxW2 == -1) {
+					continue;
+				}
+				witnessSearch(u, v, (long) w1 + maxW2);
+				for (int j = 0; j < outgoing.size; j++) {
+					int x = outgoing.to[j];
+					if (contracted[x] || x == u) {
+						continue;
+					}
+					int w = w1 + outgoing.weight[j];
+					if (witnessDistance(x) > w) {
+						shortcuts++;
+						if (!simulate) {
+							addEdge(u, x, w, v);
+						}
+					}
+				}
+			}
+			return shortcuts;
+		}
+
+		/*
+		Local Dijkstra search from u that ignores v and the contracted vertices, stopping at
+		the distance limit or after WITNESS_SETTLE_LIMIT vertices. Distances it does not reach
+		are treated as infinite, which can only add unnecessary shortcuts, never miss one.
+		*/
+		private void witnessSearch(int u, int v, long limit) {
+			witnessEpoch++;
+			witnessPq.clear();
+			witnessDistance[u] = 0;
+			witnessStamp[u] = witnessEpoch;
+			witnessPq.insert(u, 0);
+			int settled = 0;
+			while (!witnessPq.isEmpty() && witnessPq.minPriority() <= limit && settled < WITNESS_SETTLE_LIMIT) {
+				int a = witnessPq.pollMin();
+				settled++;
+				EdgeList edges = out[a];
+				for (int i = 0; i < edges.size; i++) {
+					int b = edges.to[i];
+					if (b == v || contracted[b]) {
+						continue;
+					}
+					int d = witnessDistance[a] + edges.weight[i];
+					if (witnessStamp[b] != witnessEpoch || d < witnessDistance[b]) {
+						witnessDistance[b] = d;
+						witnessStamp[b] = witnessEpoch;
+						witnessPq.insertOrDecrease(b, d);
+					}
+				}
+			}
+		}
+
+		private int witnessDistance(int x) {
+			return witnessStamp[x] == witnessEpoch ? witnessDistance[x] : INF;
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		// 30 x 30 grid with random weights in both directions
+		int side = 30;
+		Random random = new Random(7);
+		Dijkstra dj = new Dijkstra(side * side - 1);
+		for (int r = 0; r < side; r++) {
+			for (int c = 0; c < side; c++) {
+				int v = r * side + c;
+				if (c + 1 < side) {
+					dj.addEdge(v, v + 1, 1 + random.nextInt(9));
+					dj.addEdge(v + 1, v, 1 + random.nextInt(9));
+				}
+				if (r + 1 < side) {
+					dj.addEdge(v, v + side, 1 + random.nextInt(9));
+					dj.addEdge(v + side, v, 1 + random.nextInt(9));
+				}
+			}
+		}
+
+		ContractionHierarchy ch = ContractionHierarchy.build(dj);
+		File file = File.createTempFile("hierarchy", ".ch");
+		ch.save(file.getPath());
+		ContractionHierarchy loaded = ContractionHierarchy.load(file.getPath());
+		file.delete();
+
+		boolean same = true;
+		for (int i = 0; i < 1000; i++) {
+			int s = random.nextInt(side * side);
+			int t = random.nextInt(side * side);
+			same &= loaded.distance(s, t) == dj.shortestPath(s, t);
+		}
+		System.out.println("matches Dijkstra ? " + same);
+		System.out.println("0 -> 899 " + loaded.distance(0, 899) + " " + dj.shortestPath(0, 899));
+		System.out.println("path 0 -> 62 " + Arrays.toString(loaded.path(0, 62)));
+	}
+}
@@ -1,6 +1,7 @@
 /**
- * Implementation of the Depth First Search Algorithm (DFS). This algorithm recursively
- * traverses the edges of all nodes in a connected component.
+ * Implementation of the Depth First Search Algorithm (DFS). This algorithm traverses the edges
+ * of all nodes in a connected component with the non-recursive IterativeDFS engine, so deep
+ * components do not overflow the thread stack.
  * 
  * Time Complexity: O(V + E)
  * 
@@ -11,8 +12,8 @@ import java.util.*;
 
 public class DFS {
 	
-	private Stack<Integer> stack;
-	private ArrayList<Integer>[] graph;
+	private AdjacencyBuilder graph;
+	private IterativeDFS engine; // searches csr, null after the graph changes
 	private boolean[] visited;
 	private int[] edgeTo;
 
@@ -20,14 +21,9 @@ public class DFS {
  	@param n, number of vertices in the graph.
  	*/
 	public DFS(int n) {
-		graph = new ArrayList[n + 1];
+		graph = new AdjacencyBuilder(n + 1, false);
 		visited = new boolean[n + 1];
 		edgeTo = new int[n + 1];
-		stack = new Stack<>();
-
-		for (int i = 0; i < graph.length; i++) {
-			graph[i] = new ArrayList<>();
-		}
 	}
 
 	/*
@@ -36,32 +32,38 @@ public class DFS {
    	@param w, vertex
   	*/
 	public void addEdge(int v, int w) {
-		graph[v].add(w);
-		graph[w].add(v);
+		graph.addEdge(v, w);
+		graph.addEdge(w, v);
+		engine = null;
+	}
+
+	/*
+ 	Compiles the adjacency lists into a CSR snapshot.
+ 	@output the compiled graph.
+ 	*/
+	CSRGraph freeze() {
+		return graph.toCSR();
 	}
 
 	/*
  	Rund DFS and finds the path from starting vertex v to the target node.
+  	The path is printed from the target back to v.
  	@param v, starting vertex
   	@param target, target vertex
  	*/
 	public void findPath(int v, int target) {
+		Arrays.fill(visited, false);
+		if (engine != null) {
+			engine.reset();
+		}
 		dfs(v);
-		edgeTo[v] = Integer.MAX_VALUE;
-		stack.push(v);
-		int curr = v;
-		for (int i = 0; i < edgeTo.length; i++) {
-			if (edgeTo[i] == curr) {
-				curr = i;
-				stack.push(curr);
-				if (curr == target) {
-					break;
-				}
-			}
+		if (!visited[target]) {
+			return;
 		}
-		while (!stack.isEmpty()) {
-			System.out.println(stack.pop());
+		for (int curr = target; curr != v; curr = edgeTo[curr]) {
+			System.out.println(curr);
 		}
+		System.out.println(v);
 	}
 
 
@@ -70,14 +72,18 @@ public class DFS {
  	@param v, vertex
  	*/
 	public void dfs(int v) {
-		visited[v] = true;
-		for (int i = 0; i < graph[v].size(); i++) {
-			int vertex = graph[v].get(i);
-			if (!visited[vertex]) {
-				dfs(vertex);
-				edgeTo[vertex] = v;
-			}
+		if (engine == null) {
+			engine = new IterativeDFS(freeze());
 		}
+		engine.run(v, new IterativeDFS.Visitor() {
+			public void discover(int u) {
+				visited[u] = true;
+			}
+
+			public void treeEdge(int u, int w) {
+				edgeTo[w] = u;
+			}
+		});
 	}
 
 	public static void main(String[] args) {
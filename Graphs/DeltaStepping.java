@@ -0,0 +1,260 @@
+/**
+ * Implementation of the Delta-Stepping Algorithm, a parallel version of Dijkstra's Algorithm
+ * for the single source shortest path problem with non-negative edge weights. Vertices are
+ * kept in buckets of width delta by their tentative distance, and the buckets are processed
+ * in increasing order. Edges no heavier than delta ("light" edges) can put a vertex back into
+ * the current bucket, so the light edges of the current bucket are relaxed in parallel rounds
+ * until the bucket stays empty. The heavy edges of every vertex removed from the bucket are
+ * then relaxed once in parallel. Tentative distances are lowered with compareAndSet so that
+ * threads relaxing edges into the same vertex never lose an update.
+ *
+ * A delta of 1 behaves like Dial's buckets and a delta larger than every path behaves like
+ * Bellman-Ford, so delta trades wasted relaxations for parallelism. The maximum edge weight
+ * divided by the average degree is a reasonable start.
+ *
+ * Time Complexity: O(L / delta) buckets for the largest distance L, O(V + E) work per phase
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class DeltaStepping {
+	private static final int INF = Integer.MAX_VALUE;
+	private static final int SEQUENTIAL_CUTOFF = 1024; // smaller frontiers are relaxed by one thread
+
+	private Dijkstra dj;
+	private int delta;
+	private int threads;
+
+	private CSRGraph graph;
+	private AtomicIntegerArray distance;
+	private ArrayList<IntArrayList> buckets;
+	private int[] mark; // mark[v] == round when v is already in the current frontier
+	private int[] removed; // removed[v] == bucket + 1 when v was removed from that bucket
+	private int round;
+	private ForkJoinPool pool;
+
+	/*
+	@param dj, the graph
+	@param delta, the bucket width, at least 1
+	@param threads, number of worker threads
+	*/
+	public DeltaStepping(Dijkstra dj, int delta, int threads) {
+		if (delta < 1) {
+			throw new IllegalArgumentException("delta must be at least 1");
+		}
+		this.dj = dj;
+		this.delta = delta;
+		this.threads = threads;
+	}
+
+	/*
+	Calculates the distance of the shortest path from the start node to all other nodes.
+	@param start, start vertex
+	@output the distance array, in the same layout as Dijkstra.shortestPath.
+	*/
+	public int[] shortestPath(int start) {
+		graph = dj.freeze();
+		int n = graph.vertexCount();
+		distance = new AtomicIntegerArray(n);
+		for (int v = 0; v < n; v++) {
+			distance.set(v, INF);
+		}
+		buckets = new ArrayList<>();
+		mark = new int[n];
+		removed = new int[n];
+		round = 0;
+		pool = new ForkJoinPool(threads);
+
+		try {
+			distance.set(start, 0);
+			bucket(0).add(start);
+			for (int i = 0; i < buckets.size(); i++) {
+				processBucket(i);
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		int[] result = new int[n];
+		for (int v = 0; v < n; v++) {
+			result[v] = distance.get(v);
+		}
+		return result;
+	}
+
+	/*
+	Runs shortestPath and the sequential Dijkstra's Algorithm from the same start vertex and
+	compares the two distance arrays.
+	@param start, start vertex
+	@output true if both algorithms found the same distances.
+	*/
+	public boolean verify(int start) {
+		return Arrays.equals(shortestPath(start), dj.shortestPath(start));
+	}
+
+	/*
+	Settles every vertex whose distance falls in bucket i.
+	@param i, bucket index
+	*/
+	private void processBucket(int i) {
+		IntArrayList settled = new IntArrayList();
+		while (buckets.get(i).size() > 0) {
+			IntArrayList entries = buckets.get(i);
+			buckets.set(i, new IntArrayList());
+
+			// drop entries whose vertex has since moved to a later bucket or is already queued
+			round++;
+			IntArrayList frontier = new IntArrayList();
+			for (int j = 0; j < entries.size(); j++) {
+				int v = entries.get(j);
+				if (distance.get(v) / delta == i && mark[v] != round) {
+					mark[v] = round;
+					frontier.add(v);
+					if (removed[v] != i + 1) {
+						removed[v] = i + 1;
+						settled.add(v);
+					}
+				}
+			}
+			relaxAll(frontier, true);
+		}
+		relaxAll(settled, false);
+	}
+
+	/*
+	Relaxes the light or the heavy edges of every vertex in the list, splitting the list
+	across the worker threads, then files the improved vertices into their buckets.
+	@param vertices, vertices whose edges are relaxed
+	@param light, true to relax the edges of weight at most delta, false for the rest
+	*/
+	private void relaxAll(IntArrayList vertices, boolean light) {
+		if (vertices.size() < SEQUENTIAL_CUTOFF || threads == 1) {
+			addToBuckets(relax(vertices, 0, vertices.size(), light));
+			return;
+		}
+
+		int chunks = threads * 4;
+		int chunkSize = (vertices.size() + chunks - 1) / chunks;
+		List<Callable<IntArrayList>> tasks = new ArrayList<>();
+		for (int from = 0; from < vertices.size(); from += chunkSize) {
+			int lo = from;
+			int hi = Math.min(from + chunkSize, vertices.size());
+			tasks.add(() -> relax(vertices, lo, hi, light));
+		}
+		try {
+			for (Future<IntArrayList> f : pool.invokeAll(tasks)) {
+				addToBuckets(f.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while relaxing edges", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Relaxation worker failed", e.getCause());
+		}
+	}
+
+	/*
+	Relaxes the light or heavy edges of vertices[lo .. hi - 1]. Safe to call from several
+	threads at once.
+	@output the vertices whose distance was lowered, possibly with repeats.
+	*/
+	private IntArrayList relax(IntArrayList vertices, int lo, int hi, boolean light) {
+		int[] offsets = graph.offsets;
+		int[] targets = graph.targets;
+		int[] weights = graph.weights;
+		IntArrayList improved = new IntArrayList();
+		for (int j = lo; j < hi; j++) {
+			int u = vertices.get(j);
+			int du = distance.get(u);
+			for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+				int w = weights[e];
+				if ((w <= delta) != light) {
+					continue;
+				}
+				int v = targets[e];
+				int newDistance = du + w;
+				int old = distance.get(v);
+				while (newDistance < old) {
+					if (distance.compareAndSet(v, old, newDistance)) {
+						improved.add(v);
+						break;
+					}
+					old = distance.get(v);
+				}
+			}
+		}
+		return improved;
+	}
+
+	/*
+	Files each vertex into the bucket of its current distance.
+	@param vertices, vertices with a lowered distance
+	*/
+	private void addToBuckets(IntArrayList vertices) {
+		for (int j = 0; j < vertices.size(); j++) {
+			int v = vertices.get(j);
+			bucket(distance.get(v) / delta).add(v);
+		}
+	}
+
+	/*
+	@param i, bucket index
+	@output bucket i, creating the buckets up to it if needed.
+	*/
+	private IntArrayList bucket(int i) {
+		while (buckets.size() <= i) {
+			buckets.add(new IntArrayList());
+		}
+		return buckets.get(i);
+	}
+
+	public static void main(String[] args) {
+		Dijkstra dj = new Dijkstra(6);
+		dj.addEdge(1, 2, 5);
+		dj.addEdge(1, 3, 1);
+		dj.addEdge(2, 3, 2);
+		dj.addEdge(3, 2, 3);
+		dj.addEdge(2, 4, 3);
+		dj.addEdge(2, 5, 20);
+		dj.addEdge(3, 5, 12);
+		dj.addEdge(4, 3, 3);
+		dj.addEdge(4, 5, 2);
+		dj.addEdge(4, 6, 6);
+		dj.addEdge(5, 6, 1);
+
+		DeltaStepping ds = new DeltaStepping(dj, 3, 4);
+		int[] d = ds.shortestPath(1);
+		for (int i = 0; i < d.length; i++) {
+			System.out.println(i + " " + d[i]);
+		}
+		System.out.println("matches Dijkstra ? " + ds.verify(1));
+
+		// random graph large enough to relax the frontiers in parallel
+		int n = 200000;
+		Random random = new Random(42);
+		Dijkstra large = new Dijkstra(n);
+		for (int i = 0; i < n * 8; i++) {
+			large.addEdge(random.nextInt(n + 1), random.nextInt(n + 1), 1 + random.nextInt(1000));
+		}
+		System.out.println("large graph matches Dijkstra ? " + new DeltaStepping(large, 100, 8).verify(0));
+		// Example Output
+		/*
+		0 2147483647
+		1 0
+		2 4
+		3 1
+		4 7
+		5 9
+		6 10
+		matches Dijkstra ? true
+		large graph matches Dijkstra ? true
+		*/
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * Implementation of Dial's bucket queue for Dijkstra's Algorithm on graphs whose edge weights
+ * are integers between 0 and a small maximum C. While a search runs, every pending distance
+ * lies between the last distance removed and that distance plus C, so C + 1 buckets used as a
+ * circular array are enough to hold one bucket per distance. Removing the minimum scans
+ * forward from the current bucket to the next non-empty one. A key whose distance is lowered
+ * is pushed again and its old entry is left behind to be skipped by the caller.
+ *
+ * Time Complexity: O(1) push, O(C) worst case pollMin, O(V * C + E) per search
+ */
+import java.util.Arrays;
+
+public class DialQueue implements IntPriorityQueue {
+
+	private int[][] buckets;
+	private int[] bucketSize;
+	private int size;
+	private long current; // distance of the bucket at the cursor
+	private int cursor;
+
+	/*
+	@param maxWeight, the largest edge weight in the graph
+	*/
+	public DialQueue(int maxWeight) {
+		buckets = new int[maxWeight + 1][];
+		bucketSize = new int[maxWeight + 1];
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new int[4];
+		}
+	}
+
+	/*
+	@output the largest edge weight this queue can handle.
+	*/
+	public int maxWeight() {
+		return buckets.length - 1;
+	}
+
+	/*
+	Adds the key to the bucket for p. p must be between the last removed priority and that
+	priority plus maxWeight.
+	@param key, key
+	@param p, priority
+	*/
+	public void push(int key, long p) {
+		int b = (int) (p % buckets.length);
+		int[] bucket = buckets[b];
+		if (bucketSize[b] == bucket.length) {
+			bucket = Arrays.copyOf(bucket, bucket.length * 2);
+			buckets[b] = bucket;
+		}
+		bucket[bucketSize[b]++] = key;
+		size++;
+	}
+
+	public int pollMin() {
+		while (bucketSize[cursor] == 0) {
+			cursor = cursor + 1 == buckets.length ? 0 : cursor + 1;
+			current++;
+		}
+		size--;
+		return buckets[cursor][--bucketSize[cursor]];
+	}
+
+	/*
+	@output the priority of the entry pollMin would return. The queue must not be empty.
+	*/
+	public long minPriority() {
+		int b = cursor;
+		long p = current;
+		while (bucketSize[b] == 0) {
+			b = b + 1 == buckets.length ? 0 : b + 1;
+			p++;
+		}
+		return p;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		if (size > 0) {
+			Arrays.fill(bucketSize, 0);
+			size = 0;
+		}
+		current = 0;
+		cursor = 0;
+	}
+
+	public static void main(String[] args) {
+		DialQueue q = new DialQueue(5);
+		q.push(1, 0);
+		q.push(2, 4);
+		q.push(3, 2);
+		q.push(4, 5);
+
+		while (!q.isEmpty()) {
+			long p = q.minPriority();
+			System.out.println(q.pollMin() + " " + p);
+		}
+		// Example Output
+		/*
+		1 0
+		3 2
+		2 4
+		4 5
+		*/
+	}
+}
@@ -1,41 +1,36 @@
 /**
  * Implementation of Dijkstra's Algorithm to compute the shortest paths from a start node to
  * all other nodes in a graph with positive edge weights. This implementation uses an
- * indexed priority queue to determine which path to take.
+ * indexed priority queue, or a bucket queue for small integer weights, to determine which
+ * path to take.
  * 
- * Time Complexity: O(V + E)
+ * Time Complexity: O((V + E) * log(V)), O(V * C + E) with Dial's buckets for maximum weight C
  * 
  * @author Khadijah Flowers, khadijah20flowers@gmail.com
  */
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Dijkstra {
-	// [node, edge_weight]
-	private PriorityQueue<Pair> pq; // priority Queue
-	private HashMap<Integer, Pair> ipq; // indexed priority queue
-	private HashMap<Integer, ArrayList<int[]>> graph;
+	private static final int HEAP_ARITY = 4;
+	private static final int DIAL_MAX_WEIGHT = 1024; // AUTO uses Dial's buckets up to this weight
 
-	private boolean visited[];
+	// adjacency lists with the weight of every edge
+	private AdjacencyBuilder graph;
+	private CSRGraph reverseCsr; // transpose of the compiled graph, used by the backward search
+	private Workspace workspace; // shared by queries that are not given a workspace
+	private QueueType queueType = QueueType.AUTO;
+	private int maxWeight; // largest edge weight added so far
 
 	/*
  	@param n, number of vertices in the graph.
   	*/
 	public Dijkstra(int n) {
-		pq = new PriorityQueue<>();
-		ipq = new HashMap<>();
-		graph = new HashMap<>();
-		visited = new boolean[n + 1];
-		createGraph(n);
-	}
-
-	/*
- 	Creates the adjacency lists for the nodes in the graph.
- 	@param n, the number of nodes in the graph.
- 	*/
-	private void createGraph(int n) {
-		for (int i = 0; i < n + 1; i++) {
-			graph.put(i, new ArrayList<>());
-		}
+		graph = new AdjacencyBuilder(n + 1, true);
 	}
 
 	/*
@@ -45,95 +40,600 @@ public class Dijkstra {
    	@param weight, the weight of the edge between u and v
  	*/
 	public void addEdge(int u, int v, int weight) {
-		ArrayList<int[]> u_edges = graph.get(u);
-		u_edges.add(new int[] {v, weight});
+		graph.addEdge(u, v, weight);
+		maxWeight = Math.max(maxWeight, weight);
+		reverseCsr = null;
+	}
+
+	/*
+  	@output, the adjacency lists of the graph, including edges added since the last freeze.
+ 	*/
+	AdjacencyBuilder adjacency() {
+		return graph;
+	}
+
+	/*
+ 	@output, the number of vertices in the graph, including 0.
+ 	*/
+	public int vertexCount() {
+		return graph.vertexCount();
+	}
+
+	/*
+ 	Selects the priority queue used by shortestPath(start) and shortestPath(s, t).
+  	A* and the bidirectional search always use the indexed heap.
+ 	@param type, the queue type
+ 	*/
+	public void setQueueType(QueueType type) {
+		queueType = type;
+	}
+
+	/*
+ 	@output, the queue type the searches will use. AUTO picks Dial's buckets when the largest
+  	edge weight is small enough for one bucket per distance and a radix heap otherwise.
+ 	*/
+	public QueueType resolveQueueType() {
+		if (queueType != QueueType.AUTO) {
+			return queueType;
+		}
+		return maxWeight <= DIAL_MAX_WEIGHT ? QueueType.DIAL : QueueType.RADIX;
+	}
+
+	/*
+ 	Compiles the adjacency lists into a CSR snapshot with flat offsets, targets and weights
+  	arrays. The snapshot is reused by every query until the next call to addEdge.
+  	@output, the compiled graph.
+ 	*/
+	public CSRGraph freeze() {
+		return graph.toCSR();
+	}
+
+	/*
+ 	Compiles the transpose of the graph, used to search backwards from a target.
+ 	@output, the compiled reverse graph.
+ 	*/
+	private CSRGraph freezeReverse() {
+		if (reverseCsr == null) {
+			reverseCsr = freeze().reverse();
+		}
+		return reverseCsr;
+	}
+
+	/*
+ 	Creates a query workspace sized for this graph. A workspace holds the distance array and
+  	priority queue of one search and is reused by every query it is passed to, so repeated
+   	queries allocate nothing. A workspace must only be used by one thread at a time.
+  	@output, a new workspace.
+ 	*/
+	public Workspace newWorkspace() {
+		return new Workspace(graph.vertexCount());
+	}
+
+	/*
+ 	@output, the workspace shared by the queries that are not given one.
+ 	*/
+	private Workspace defaultWorkspace() {
+		if (workspace == null) {
+			workspace = newWorkspace();
+		}
+		return workspace;
 	}
 
 	/*
  	Calculates the distance of the shortest path from the start node to all other
-  	nodes in the graph. The indexed priority queue is sorted by the shortest distance calcuated
-   	so far.
+  	nodes in the graph by scanning the compiled CSR snapshot. The indexed priority queue
+   	is keyed by vertex and sorted by the shortest distance calculated so far, so a better
+   	distance lowers the vertex's key in place.
  	@param start, start vertex
   	@output, the final distance array.
  	*/
 	public int[] shortestPath(int start) {
-		int[] distance = new int[graph.size()];
-		Arrays.fill(distance, Integer.MAX_VALUE);
-		distance[start] = 0;
-		Pair s = new Pair(start, 0);
+		Workspace ws = defaultWorkspace();
+		shortestPath(start, ws);
+		return ws.toArray();
+	}
 
-		// update the priority queue and the indexed priority queue
-		pq.add(s);
-		ipq.put(start, s);
+	/*
+ 	Calculates the distance of the shortest path from the start node to all other nodes,
+  	leaving the results in the workspace.
+ 	@param start, start vertex
+  	@param ws, the query workspace, read the results with ws.distance(v)
+ 	*/
+	public void shortestPath(int start, Workspace ws) {
+		search(freeze(), start, -1, ws);
+	}
 
-		while (pq.size() > 0) {
-			Pair process = pq.poll();
-			int vertex = process.getVertex();
-			if (visited[vertex]) {
-				continue;
+	/*
+ 	Calculates the shortest paths from many sources over the same graph in parallel. The graph
+  	is compiled once and shared read-only, and each worker thread owns one workspace that it
+   	reuses for every source it takes. Workers take the next unprocessed source as soon as they
+   	finish one, and report each source to the callback as soon as it completes, so results
+   	arrive in no particular order. The callback is called concurrently from several threads.
+ 	@param sources, start vertices
+  	@param threads, number of worker threads
+  	@param callback, receives each source with a workspace holding its distances. The
+  	workspace is reused once the callback returns, so it must not be kept.
+ 	*/
+	public void shortestPaths(int[] sources, int threads, SourceCallback callback) {
+		CSRGraph g = freeze();
+		AtomicInteger next = new AtomicInteger();
+		List<Callable<Void>> workers = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			workers.add(() -> {
+				Workspace ws = newWorkspace();
+				for (int j = next.getAndIncrement(); j < sources.length; j = next.getAndIncrement()) {
+					search(g, sources[j], -1, ws);
+					callback.accept(sources[j], ws);
+				}
+				return null;
+			});
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			for (Future<Void> f : pool.invokeAll(workers)) {
+				f.get();
 			}
-			visited[vertex] = true;
-			int weight = process.getWeight();
-			ArrayList<int[]> edges = graph.get(vertex);
-			for (int i = 0; i < edges.size(); i++) {
-				int newWeight = edges.get(i)[1] + weight;
-				int v = edges.get(i)[0];
-				relaxEdges(v, newWeight, distance);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while computing shortest paths", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Shortest path worker failed", e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/*
+ 	Calculates the distance of the shortest path from s to t. The search stops as soon as
+  	t is settled, so only the vertices closer to s than t are processed.
+ 	@param s, start vertex
+  	@param t, target vertex
+  	@output, the distance from s to t, or Integer.MAX_VALUE if t is unreachable.
+ 	*/
+	public int shortestPath(int s, int t) {
+		return shortestPath(s, t, defaultWorkspace());
+	}
+
+	/*
+ 	Same as shortestPath(s, t) using the given workspace.
+ 	@param s, start vertex
+  	@param t, target vertex
+  	@param ws, the query workspace
+  	@output, the distance from s to t, or Integer.MAX_VALUE if t is unreachable.
+ 	*/
+	public int shortestPath(int s, int t, Workspace ws) {
+		search(freeze(), s, t, ws);
+		return ws.distance(t);
+	}
+
+	/*
+ 	Calculates the shortest path from s to t.
+ 	@param s, start vertex
+  	@param t, target vertex
+  	@output, the vertices of the path from s to t, or an empty array if t is unreachable.
+ 	*/
+	public int[] path(int s, int t) {
+		Workspace ws = defaultWorkspace();
+		search(freeze(), s, t, ws);
+		return ws.path(t);
+	}
+
+	/*
+ 	Excludes every edge u -> v from the A* searches run in the workspace until its blocks
+  	are cleared.
+ 	@param ws, the query workspace
+  	@param u, vertex
+  	@param v, vertex
+ 	*/
+	void blockEdges(Workspace ws, int u, int v) {
+		CSRGraph g = freeze();
+		for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+			if (g.targets[e] == v) {
+				ws.blockEdge(e, g.edgeCount());
 			}
 		}
-		return distance;
+	}
+
+	/*
+ 	Runs Dijkstra's Algorithm over g from start, stopping early once target is settled.
+ 	@param g, compiled graph
+  	@param start, start vertex
+   	@param target, vertex to stop at, or -1 to settle every reachable vertex
+   	@param ws, the query workspace that receives the distances
+ 	*/
+	private void search(CSRGraph g, int start, int target, Workspace ws) {
+		int[] offsets = g.offsets;
+		int[] targets = g.targets;
+		int[] weights = g.weights;
+		IntPriorityQueue pq = ws.queue(resolveQueueType(), maxWeight);
+		ws.begin();
+		int settled = ws.epoch + 1;
+		ws.reach(start, 0, -1);
+		pq.push(start, 0);
 
+		while (!pq.isEmpty()) {
+			int vertex = pq.pollMin();
+			if (ws.stamp[vertex] == settled) {
+				continue; // an outdated entry left behind by a bucket queue
+			}
+			if (vertex == target) {
+				return;
+			}
+			ws.stamp[vertex] = settled;
+			int weight = ws.distance[vertex];
+			for (int e = offsets[vertex]; e < offsets[vertex + 1]; e++) {
+				int v = targets[e];
+				if (ws.stamp[v] != settled) {
+					relaxEdges(vertex, v, weights[e] + weight, ws, pq);
+				}
+			}
+		}
+	}
+
+	/*
+ 	Calculates the distances of the shortest paths from every vertex to the target by
+  	searching backwards from it over the reverse graph.
+ 	@param target, target vertex
+  	@output, distance[v] is the length of the shortest path from v to target.
+ 	*/
+	int[] reverseShortestPath(int target) {
+		Workspace ws = defaultWorkspace();
+		search(freezeReverse(), target, -1, ws);
+		return ws.toArray();
+	}
+
+	/*
+ 	Calculates the distance of the shortest path from s to t with A* search. The priority
+  	of a vertex is its distance from s plus the heuristic's estimate of its distance to t,
+   	which steers the search towards t. The heuristic must never overestimate the remaining
+   	distance. A vertex is re-opened if a shorter path to it is found after it was settled,
+   	so admissible heuristics that are not consistent still return the exact distance.
+ 	@param s, start vertex
+  	@param t, target vertex
+  	@param h, admissible estimate of the remaining distance to t
+  	@output, the distance from s to t, or Integer.MAX_VALUE if t is unreachable.
+ 	*/
+	public int shortestPath(int s, int t, Heuristic h) {
+		return shortestPath(s, t, h, defaultWorkspace());
+	}
+
+	/*
+ 	Same as shortestPath(s, t, h) using the given workspace.
+ 	@param s, start vertex
+  	@param t, target vertex
+  	@param h, admissible estimate of the remaining distance to t
+  	@param ws, the query workspace
+  	@output, the distance from s to t, or Integer.MAX_VALUE if t is unreachable.
+ 	*/
+	public int shortestPath(int s, int t, Heuristic h, Workspace ws) {
+		CSRGraph g = freeze();
+		int[] offsets = g.offsets;
+		int[] targets = g.targets;
+		int[] weights = g.weights;
+		ws.begin();
+		IndexedDHeap pq = ws.pq;
+		boolean blocking = ws.blocking;
+		ws.reach(s, 0, -1);
+		pq.insert(s, h.estimate(s, t));
+
+		while (!pq.isEmpty()) {
+			int vertex = pq.pollMin();
+			if (vertex == t) {
+				break;
+			}
+			int weight = ws.distance[vertex];
+			for (int e = offsets[vertex]; e < offsets[vertex + 1]; e++) {
+				int v = targets[e];
+				if (blocking && ws.isBlocked(v, e)) {
+					continue;
+				}
+				int newWeight = weights[e] + weight;
+				if (newWeight < ws.distance(v)) {
+					ws.reach(v, newWeight, vertex);
+					pq.insertOrDecrease(v, (long) newWeight + h.estimate(v, t));
+				}
+			}
+		}
+		return ws.distance(t);
+	}
+
+	/*
+ 	Calculates the distance of the shortest path from s to t with a bidirectional search.
+  	A forward search from s over the graph and a backward search from t over the reverse
+   	graph take turns settling whichever frontier is closer. Every edge that connects the two
+   	searches is a candidate path, and the searches stop once the two frontier minimums add up
+   	to at least the best candidate, since no shorter path can be found after that point.
+ 	@param s, start vertex
+  	@param t, target vertex
+  	@output, the distance from s to t, or Integer.MAX_VALUE if t is unreachable.
+ 	*/
+	public int bidirectionalShortestPath(int s, int t) {
+		return bidirectionalShortestPath(s, t, defaultWorkspace());
+	}
+
+	/*
+ 	Same as bidirectionalShortestPath(s, t) using the given workspace. The backward search
+  	runs in the workspace's reverse partner.
+ 	@param s, start vertex
+  	@param t, target vertex
+  	@param ws, the query workspace
+  	@output, the distance from s to t, or Integer.MAX_VALUE if t is unreachable.
+ 	*/
+	public int bidirectionalShortestPath(int s, int t, Workspace ws) {
+		if (s == t) {
+			return 0;
+		}
+		CSRGraph[] g = {freeze(), freezeReverse()};
+		Workspace[] side = {ws, ws.reverse()};
+		side[0].begin();
+		side[1].begin();
+		side[0].reach(s, 0, -1);
+		side[1].reach(t, 0, -1);
+		side[0].pq.insert(s, 0);
+		side[1].pq.insert(t, 0);
+		long best = Long.MAX_VALUE;
+
+		while (!side[0].pq.isEmpty() && !side[1].pq.isEmpty()) {
+			long forwardMin = side[0].pq.minPriority();
+			long backwardMin = side[1].pq.minPriority();
+			if (forwardMin + backwardMin >= best) {
+				break;
+			}
+			int d = forwardMin <= backwardMin ? 0 : 1;
+			Workspace curr = side[d];
+			Workspace other = side[1 - d];
+			CSRGraph sideGraph = g[d];
+			int settled = curr.epoch + 1;
+			int vertex = curr.pq.pollMin();
+			curr.stamp[vertex] = settled;
+			int weight = curr.distance[vertex];
+			for (int e = sideGraph.offsets[vertex]; e < sideGraph.offsets[vertex + 1]; e++) {
+				int v = sideGraph.targets[e];
+				int newWeight = sideGraph.weights[e] + weight;
+				if (curr.stamp[v] != settled) {
+					relaxEdges(vertex, v, newWeight, curr, curr.pq);
+				}
+				int otherDistance = other.distance(v);
+				if (otherDistance != Integer.MAX_VALUE) {
+					best = Math.min(best, (long) newWeight + otherDistance);
+				}
+			}
+		}
+		return best == Long.MAX_VALUE ? Integer.MAX_VALUE : (int) best;
 	}
 
 	/*
  	Relaxes the edge leading to the vertex if the newWeight is better than the distance
-  	calculated so far. If the distance is better, the priority queue is updated with the
-   	vertex and its new distance from the start node.
+  	calculated so far. If the distance is better, the vertex is added to the priority queue
+   	or its key is decreased to the new distance from the start node.
+ 	@param from, the vertex the edge leaves
  	@param vertex, vertex
   	@param newWeight, possible new distance for the vertex
-   	@param distances, the distances array with the length of the shortest paths calculated so far.
+   	@param ws, the query workspace with the distances calculated so far
+   	@param pq, the priority queue of vertices that have been reached but not settled
  	*/
-	private void relaxEdges(int vertex, int newWeight, int[] distances) {
-		if (distances[vertex] == Integer.MAX_VALUE) {
-			distances[vertex] = newWeight;
-			Pair newGuy = new Pair(vertex, newWeight);
-			ipq.put(vertex, newGuy);
-			pq.add(newGuy);
-		} else if (newWeight < distances[vertex]) {
-			distances[vertex] = newWeight;
-			Pair newGuy = new Pair(vertex, distances[vertex]);
-			Pair oldGuy = ipq.get(vertex);
-			pq.remove(oldGuy);
-			pq.add(newGuy);
-			ipq.put(vertex, newGuy);
+	private void relaxEdges(int from, int vertex, int newWeight, Workspace ws, IntPriorityQueue pq) {
+		if (newWeight < ws.distance(vertex)) {
+			ws.reach(vertex, newWeight, from);
+			pq.push(vertex, newWeight);
 		}
 	}
 
-	/* Class representing the end point vertex and the weight of the edge leading to it. */
-	public class Pair implements Comparable<Pair> {
-		private int[] pair;
+	/*
+ 	Per-query state for Dijkstra's Algorithm. Instead of clearing the distance array before
+  	every query, each query gets a new epoch number and a vertex's distance only counts if its
+   	stamp belongs to the current epoch. Starting a query therefore costs O(1) plus the size of
+   	the priority queue left by the previous one, and never touches the rest of the graph.
+ 	*/
+	public static class Workspace {
+		private int[] distance;
+		private int[] stamp; // epoch = reached in this query, epoch + 1 = settled in this query
+		private int[] predecessor; // vertex before v on the shortest path found so far, -1 for the start
+		private int epoch;
+		private int[] blockedVertex, blockedEdge; // == blockEpoch when excluded from A* searches
+		private int blockEpoch;
+		private boolean blocking;
+		private IndexedDHeap pq;
+		private DialQueue dial; // created on first use
+		private RadixHeap radix; // created on first use
+		private Workspace reverse; // backward half of a bidirectional search
+
+		/*
+	 	@param n, number of vertices in the graph, including 0
+	 	*/
+		public Workspace(int n) {
+			distance = new int[n];
+			stamp = new int[n];
+			predecessor = new int[n];
+			pq = new IndexedDHeap(n, HEAP_ARITY);
+			blockEpoch = 1;
+		}
+
+		/*
+	 	Starts a new query. Stamps from earlier queries become stale without being cleared,
+	  	except when the epoch counter wraps around.
+	 	*/
+		private void begin() {
+			pq.clear();
+			if (dial != null) {
+				dial.clear();
+			}
+			if (radix != null) {
+				radix.clear();
+			}
+			epoch += 2;
+			if (epoch < 0 || epoch == Integer.MAX_VALUE) {
+				Arrays.fill(stamp, 0);
+				epoch = 2;
+			}
+		}
+
+		/*
+	 	Records a tentative distance for the vertex in the current query.
+	 	@param v, vertex
+	  	@param d, distance from the start vertex
+	  	@param from, the vertex before v on the path, -1 for the start vertex
+	 	*/
+		private void reach(int v, int d, int from) {
+			distance[v] = d;
+			stamp[v] = epoch;
+			predecessor[v] = from;
+		}
+
+		/*
+	 	@param v, vertex
+	  	@output, the vertex before v on the shortest path found by the last query, or -1 if v is
+	  	the start vertex or was not reached.
+	 	*/
+		public int predecessor(int v) {
+			return stamp[v] >= epoch ? predecessor[v] : -1;
+		}
+
+		/*
+	 	Walks the shortest path found by the last query backwards from t, one predecessor at a
+	  	time, without copying it.
+	 	@param t, target vertex
+	  	@output, an iterator over the path from t back to the start vertex, empty if t was not reached.
+	 	*/
+		public PrimitiveIterator.OfInt pathTo(int t) {
+			return new PrimitiveIterator.OfInt() {
+				private int next = stamp[t] >= epoch ? t : -1;
+
+				public boolean hasNext() {
+					return next != -1;
+				}
 
-		public Pair(int vertex, int weight) {
-			pair = new int[] {vertex, weight};
+				public int nextInt() {
+					if (next == -1) {
+						throw new NoSuchElementException();
+					}
+					int v = next;
+					next = predecessor[v];
+					return v;
+				}
+			};
+		}
+
+		/*
+	 	@param t, target vertex
+	  	@output, the vertices of the shortest path found by the last query from the start vertex
+	  	to t, or an empty array if t was not reached.
+	 	*/
+		public int[] path(int t) {
+			int length = 0;
+			for (PrimitiveIterator.OfInt it = pathTo(t); it.hasNext(); it.nextInt()) {
+				length++;
+			}
+			int[] path = new int[length];
+			for (PrimitiveIterator.OfInt it = pathTo(t); it.hasNext(); ) {
+				path[--length] = it.nextInt();
+			}
+			return path;
+		}
+
+		/*
+	 	Removes every blocked vertex and edge, so A* searches see the whole graph again.
+	 	*/
+		void clearBlocks() {
+			blocking = false;
+			blockEpoch++;
+		}
+
+		/*
+	 	Excludes the vertex from the A* searches run in this workspace until clearBlocks.
+	 	@param v, vertex
+	 	*/
+		void blockVertex(int v) {
+			if (blockedVertex == null) {
+				blockedVertex = new int[distance.length];
+			}
+			blockedVertex[v] = blockEpoch;
+			blocking = true;
+		}
+
+		/*
+	 	Excludes the edge from the A* searches run in this workspace until clearBlocks.
+	 	@param e, edge index in the compiled graph
+	  	@param edgeCount, the number of edges in the compiled graph
+	 	*/
+		void blockEdge(int e, int edgeCount) {
+			if (blockedEdge == null || blockedEdge.length < edgeCount) {
+				blockedEdge = new int[edgeCount];
+			}
+			blockedEdge[e] = blockEpoch;
+			blocking = true;
 		}
 
-		public int getWeight() {
-			return pair[1];
+		private boolean isBlocked(int v, int e) {
+			return (blockedVertex != null && blockedVertex[v] == blockEpoch)
+				|| (blockedEdge != null && blockedEdge[e] == blockEpoch);
 		}
 
-		public int getVertex() {
-			return pair[0];
+		/*
+	 	@param v, vertex
+	  	@output, the distance to v found by the last query, or Integer.MAX_VALUE if v was not reached.
+	 	*/
+		public int distance(int v) {
+			return stamp[v] >= epoch ? distance[v] : Integer.MAX_VALUE;
 		}
 
-		public int compareTo(Pair p) {
-			if (getWeight() < p.getWeight()) {
-				return -1;
-			} else if (getWeight() > p.getWeight()) {
-				return 1;
-			} else {
-				return 0;
+		/*
+	 	@output, a new array with the distances found by the last query.
+	 	*/
+		public int[] toArray() {
+			int[] out = new int[distance.length];
+			for (int v = 0; v < out.length; v++) {
+				out[v] = distance(v);
 			}
+			return out;
 		}
+
+		/*
+	 	@param type, a resolved queue type
+	  	@param maxWeight, the largest edge weight in the graph
+	 	@output, this workspace's queue of that type.
+	 	*/
+		private IntPriorityQueue queue(QueueType type, int maxWeight) {
+			if (type == QueueType.DIAL) {
+				if (dial == null || dial.maxWeight() < maxWeight) {
+					dial = new DialQueue(maxWeight);
+				}
+				return dial;
+			} else if (type == QueueType.RADIX) {
+				if (radix == null) {
+					radix = new RadixHeap();
+				}
+				return radix;
+			}
+			return pq;
+		}
+
+		private Workspace reverse() {
+			if (reverse == null) {
+				reverse = new Workspace(distance.length);
+			}
+			return reverse;
+		}
+	}
+
+	/*
+ 	The priority queues available to the searches. HEAP is the indexed d-ary heap, DIAL is
+  	Dial's circular bucket queue and RADIX is a radix heap. The bucket queues need integer
+   	edge weights that are not negative.
+ 	*/
+	public enum QueueType {
+		AUTO, HEAP, DIAL, RADIX
+	}
+
+	/* A lower bound on the distance of the shortest path from a vertex to a target. */
+	public interface Heuristic {
+		int estimate(int vertex, int target);
+	}
+
+	/* Receives the result of one source of a batch of shortest path queries. */
+	public interface SourceCallback {
+		void accept(int source, Workspace ws);
 	}
 
 	// Dijkstra's
@@ -160,5 +660,33 @@ public class Dijkstra {
 		for (int i = 0; i < d.length; i++) {
 			System.out.println(i + " " + d[i]);
 		}
+
+		System.out.println("1 -> 6 " + dj.shortestPath(1, 6));
+		System.out.println("1 -> 6 " + dj.bidirectionalShortestPath(1, 6));
+		System.out.println("6 -> 1 " + dj.bidirectionalShortestPath(6, 1));
+		System.out.println("1 -> 6 " + dj.shortestPath(1, 6, Landmarks.build(dj, 2)));
+		System.out.println("1 -> 6 " + Arrays.toString(dj.path(1, 6)));
+		// Example Output
+		/*
+		1 -> 6 10
+		1 -> 6 10
+		6 -> 1 2147483647
+		1 -> 6 10
+		1 -> 6 [1, 3, 2, 4, 5, 6]
+		*/
+
+		// distance matrix between vertices 1 .. 6, one row per source
+		int[] sources = {1, 2, 3, 4, 5, 6};
+		int[][] matrix = new int[sources.length][];
+		dj.shortestPaths(sources, 2, (source, ws) -> {
+			int[] row = new int[sources.length];
+			for (int i = 0; i < sources.length; i++) {
+				row[i] = ws.distance(sources[i]);
+			}
+			matrix[source - 1] = row;
+		});
+		for (int[] row : matrix) {
+			System.out.println(Arrays.toString(row));
+		}
 	}
 }
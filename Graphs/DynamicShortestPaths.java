@@ -0,0 +1,165 @@
+/**
+ * Maintains the shortest path distances and shortest path trees from a set of tracked source
+ * vertices while edges are added to a Dijkstra graph. Adding an edge can only shorten paths,
+ * so after addEdge(u, v, w) the only vertices whose distance changes are v, if the new edge
+ * gives it a shorter path, and the vertices whose shortest paths pass through v afterwards.
+ * Following Ramalingam and Reps, those vertices are found with a Dijkstra search that starts at
+ * v alone and only continues through vertices whose distance actually improved, so the cost
+ * of an insertion is proportional to the changed vertices and their edges rather than the graph.
+ *
+ * Time Complexity: O(|changed| * log(V) + edges of the changed vertices) per source per edge
+ */
+import java.util.HashMap;
+import java.util.Set;
+
+public class DynamicShortestPaths {
+	private static final int INF = Integer.MAX_VALUE;
+
+	private Dijkstra dj;
+	private HashMap<Integer, Tree> trees; // source -> shortest path tree
+	private IndexedDHeap pq; // shared by the propagation searches
+
+	/*
+	@param dj, the graph. Edges must be added through this object to keep the trees up to date.
+	*/
+	public DynamicShortestPaths(Dijkstra dj) {
+		this.dj = dj;
+		trees = new HashMap<>();
+		pq = new IndexedDHeap(dj.vertexCount());
+	}
+
+	/*
+	Starts maintaining the shortest paths from the source, computing them once from scratch.
+	@param source, source vertex
+	*/
+	public void track(int source) {
+		Dijkstra.Workspace ws = dj.newWorkspace();
+		dj.shortestPath(source, ws);
+		int n = dj.vertexCount();
+		Tree tree = new Tree(n);
+		for (int v = 0; v < n; v++) {
+			tree.distance[v] = ws.distance(v);
+			tree.predecessor[v] = ws.predecessor(v);
+		}
+		trees.put(source, tree);
+	}
+
+	/*
+	Stops maintaining the shortest paths from the source.
+	@param source, source vertex
+	*/
+	public void untrack(int source) {
+		trees.remove(source);
+	}
+
+	public Set<Integer> sources() {
+		return trees.keySet();
+	}
+
+	/*
+	Adds a directed edge from u to v to the graph and updates the tracked shortest paths.
+	@param u, vertex
+	@param v, vertex
+	@param weight, the weight of the edge between u and v, not negative
+	*/
+	public void addEdge(int u, int v, int weight) {
+		dj.addEdge(u, v, weight);
+		for (Tree tree : trees.values()) {
+			propagate(tree, u, v, weight);
+		}
+	}
+
+	/*
+	@param source, a tracked source vertex
+	@param v, vertex
+	@output the distance from source to v, or Integer.MAX_VALUE if v is unreachable.
+	*/
+	public int distance(int source, int v) {
+		return trees.get(source).distance[v];
+	}
+
+	/*
+	@param source, a tracked source vertex
+	@param v, vertex
+	@output the vertex before v on the shortest path from source, or -1 for the source itself
+	or an unreachable vertex.
+	*/
+	public int predecessor(int source, int v) {
+		return trees.get(source).predecessor[v];
+	}
+
+	/*
+	Lowers the distance of v through the new edge u -> v if that is shorter, then passes the
+	improvement on to every vertex whose shortest path now runs through v.
+	@param tree, the shortest path tree of one source
+	*/
+	private void propagate(Tree tree, int u, int v, int weight) {
+		int[] distance = tree.distance;
+		int[] predecessor = tree.predecessor;
+		if (distance[u] == INF || distance[u] + weight >= distance[v]) {
+			return;
+		}
+		distance[v] = distance[u] + weight;
+		predecessor[v] = u;
+		pq.clear();
+		pq.insert(v, distance[v]);
+
+		while (!pq.isEmpty()) {
+			int x = pq.pollMin();
+			int dx = distance[x];
+			AdjacencyBuilder edges = dj.adjacency();
+			for (int i = 0; i < edges.degree(x); i++) {
+				int y = edges.target(x, i);
+				int newDistance = dx + edges.weight(x, i);
+				if (newDistance < distance[y]) {
+					distance[y] = newDistance;
+					predecessor[y] = x;
+					pq.insertOrDecrease(y, newDistance);
+				}
+			}
+		}
+	}
+
+	/* Distance array and shortest path tree of one tracked source. */
+	private static class Tree {
+		private int[] distance;
+		private int[] predecessor;
+
+		private Tree(int n) {
+			distance = new int[n];
+			predecessor = new int[n];
+		}
+	}
+
+	public static void main(String[] args) {
+		Dijkstra dj = new Dijkstra(6);
+		dj.addEdge(1, 2, 5);
+		dj.addEdge(1, 3, 1);
+		dj.addEdge(2, 3, 2);
+		dj.addEdge(3, 2, 3);
+		dj.addEdge(2, 4, 3);
+		dj.addEdge(2, 5, 20);
+		dj.addEdge(3, 5, 12);
+		dj.addEdge(4, 3, 3);
+		dj.addEdge(4, 5, 2);
+		dj.addEdge(4, 6, 6);
+		dj.addEdge(5, 6, 1);
+
+		DynamicShortestPaths dsp = new DynamicShortestPaths(dj);
+		dsp.track(1);
+		System.out.println("1 -> 6 " + dsp.distance(1, 6));
+
+		dsp.addEdge(3, 4, 1);
+		System.out.println("1 -> 6 " + dsp.distance(1, 6) + " " + dj.shortestPath(1, 6));
+		dsp.addEdge(1, 5, 2);
+		System.out.println("1 -> 6 " + dsp.distance(1, 6) + " " + dj.shortestPath(1, 6));
+		System.out.println("before 6 " + dsp.predecessor(1, 6));
+		// Example Output
+		/*
+		1 -> 6 10
+		1 -> 6 5 5
+		1 -> 6 3 3
+		before 6 5
+		*/
+	}
+}
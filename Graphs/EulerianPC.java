@@ -20,7 +20,7 @@ public class EulerianPC {
 	private boolean isDirected;
 	private boolean[] visited;
 	private int start, end;
-	private ArrayList<Integer> path;
+	private IntArrayList path; // the path in reverse, the end vertex first
 	private int graphSize;
 
 	/*
@@ -149,7 +149,7 @@ public class EulerianPC {
 			return;
 		}
 		visited = new boolean[adjList.size()];
-		path = new ArrayList<>();
+		path = new IntArrayList();
 
 		if (start != -1 && end != -1) {
 			getPath(adjList, start);
@@ -172,7 +172,7 @@ public class EulerianPC {
 			System.out.println("\nAn Eulerian Path does exist. Start anywhere.");
 		}
 
-		for (int i = 0; i < path.size(); i++) {
+		for (int i = path.size() - 1; i >= 0; i--) {
 			System.out.print(path.get(i) + " ");
 		}
 		System.out.println();
@@ -197,16 +197,22 @@ public class EulerianPC {
 	}
 
 	/*
+	Hierholzer's Algorithm with an explicit stack. The walk follows unused edges until it gets
+	stuck, and a vertex is added to the path once all of its edges have been used.
 	@param graph, the graph with the Eulerian Path
 	@param startNode, the starting node of the path
 	*/
 	public void getPath(Map<Integer, List<Integer>> graph, int startNode) {
-		List<Integer> edges = graph.get(startNode);
-		while (outgoing[startNode] != 0) {
-			int vertex = edges.get(--outgoing[startNode]);
-			getPath(graph, vertex);
+		IntStack walk = new IntStack();
+		walk.push(startNode);
+		while (!walk.isEmpty()) {
+			int u = walk.peek();
+			if (outgoing[u] != 0) {
+				walk.push(graph.get(u).get(--outgoing[u]));
+			} else {
+				path.add(walk.pop());
+			}
 		}
-		path.add(0, startNode);
 	}
 
 	/*
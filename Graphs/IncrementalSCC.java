@@ -0,0 +1,298 @@
+/**
+ * Maintains the strongly connected components of a directed graph while edges are added, with
+ * the Pearce-Kelly dynamic topological order extended to merge components. Every component
+ * holds a position in a topological order of the condensation. An edge from a component at an
+ * earlier position to one at a later position changes nothing. For an edge from cu back to an
+ * earlier cv, two searches bounded to the positions between the two are run: F, the components
+ * cv reaches, and B, the components that reach cu. If cu is in F the edge closes a cycle, and
+ * the components in both sets are merged into one. The positions of F and B are then handed
+ * out again: the rest of B takes the earliest, the merged component the next, and the rest of
+ * F the latest, which is topological again. Only the components between the two endpoints
+ * are ever searched, so most insertions cost far less than rerunning Tarjan's Algorithm.
+ *
+ * Components are kept in a union-find, with the members of each component in a circular
+ * linked list so that two components are joined in O(1).
+ *
+ * Time Complexity: O(1) for an edge that respects the current order, otherwise O(edges of the
+ * components between the endpoints)
+ */
+import java.util.Arrays;
+
+public class IncrementalSCC {
+
+	private AdjacencyBuilder out, in; // every edge added, forwards and backwards
+	private int[] parent, size; // union-find over the vertices, a root represents a component
+	private int[] next; // next[v] = next member of v's component, a circular list
+	private int[] ord; // ord[r] = position of component r in the topological order
+	private int[] at; // at[p] = component at position p, -1 for an empty position
+	private int count;
+
+	// search state, a component is in F or B when its stamp equals epoch
+	private int[] inF, inB;
+	private int epoch;
+
+	/*
+	@param n, number of vertices, each in a component of its own
+	*/
+	public IncrementalSCC(int n) {
+		out = new AdjacencyBuilder(n, false);
+		in = new AdjacencyBuilder(n, false);
+		parent = new int[n];
+		size = new int[n];
+		next = new int[n];
+		ord = new int[n];
+		at = new int[n];
+		inF = new int[n];
+		inB = new int[n];
+		for (int v = 0; v < n; v++) {
+			parent[v] = v;
+			size[v] = 1;
+			next[v] = v;
+			ord[v] = v;
+			at[v] = v;
+		}
+		count = n;
+	}
+
+	/*
+	Starts from the components of an existing graph, found once with Tarjan's Algorithm.
+	@param tarjan, the directed graph
+	*/
+	public IncrementalSCC(Tarjan tarjan) {
+		this(tarjan.freeze().vertexCount());
+		CSRGraph g = tarjan.freeze();
+		int n = g.vertexCount();
+		for (int u = 0; u < n; u++) {
+			for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+				out.addEdge(u, g.targets[e]);
+				in.addEdge(g.targets[e], u);
+			}
+		}
+
+		// Tarjan numbers components in reverse topological order
+		int[] comp = tarjan.components();
+		int k = tarjan.componentCount();
+		int[] rep = new int[k];
+		Arrays.fill(rep, -1);
+		Arrays.fill(at, -1);
+		for (int v = 0; v < n; v++) {
+			int c = comp[v];
+			if (rep[c] == -1) {
+				rep[c] = v;
+				ord[v] = k - 1 - c;
+				at[k - 1 - c] = v;
+			} else {
+				join(rep[c], v);
+			}
+		}
+		count = k;
+	}
+
+	/*
+	Adds a directed edge from u to v and updates the components and their order.
+	@param u, vertex
+	@param v, vertex
+	@output true if the edge closed a cycle and merged components.
+	*/
+	public boolean addEdge(int u, int v) {
+		out.addEdge(u, v);
+		in.addEdge(v, u);
+		int cu = find(u);
+		int cv = find(v);
+		if (cu == cv || ord[cu] < ord[cv]) {
+			return false;
+		}
+
+		if (++epoch == Integer.MAX_VALUE) {
+			Arrays.fill(inF, 0);
+			Arrays.fill(inB, 0);
+			epoch = 1;
+		}
+		int lb = ord[cv], ub = ord[cu];
+		IntArrayList f = search(cv, out, inF, lb, ub);
+		IntArrayList b = search(cu, in, inB, lb, ub);
+		boolean cycle = inF[cu] == epoch;
+
+		// the positions of F and B, handed out again in the order B \ M, M, F \ M
+		long[] positions = new long[f.size() + b.size()];
+		int p = 0;
+		for (int i = 0; i < f.size(); i++) {
+			positions[p++] = ord[f.get(i)];
+		}
+		for (int i = 0; i < b.size(); i++) {
+			if (inF[b.get(i)] != epoch) {
+				positions[p++] = ord[b.get(i)];
+			}
+		}
+		positions = Arrays.copyOf(positions, p);
+		Arrays.sort(positions);
+
+		long[] before = byOrder(b);
+		long[] after = byOrder(f);
+		int merged = -1;
+		if (cycle) {
+			for (int i = 0; i < f.size(); i++) {
+				int c = f.get(i);
+				if (inB[c] == epoch) {
+					merged = merged == -1 ? c : join(merged, c);
+				}
+			}
+		}
+
+		// B \ M only moves to earlier positions and F \ M only to later ones, which keeps every
+		// edge to or from a component outside the searches in order
+		for (long pos : positions) {
+			at[(int) pos] = -1;
+		}
+		p = 0;
+		for (long entry : before) {
+			place((int) entry, (int) positions[p++]);
+		}
+		if (merged != -1) {
+			place(merged, (int) positions[p]);
+		}
+		p = positions.length - after.length;
+		for (long entry : after) {
+			place((int) entry, (int) positions[p++]);
+		}
+		return cycle;
+	}
+
+	/*
+	Depth first search over the components whose positions lie in [lb, ub].
+	@param start, the component the search starts from
+	@param edges, the edges to follow, forwards or backwards
+	@param mark, stamped with epoch for every component found
+	@output the components found, including start.
+	*/
+	private IntArrayList search(int start, AdjacencyBuilder edges, int[] mark, int lb, int ub) {
+		IntArrayList found = new IntArrayList();
+		IntStack stack = new IntStack();
+		mark[start] = epoch;
+		stack.push(start);
+		while (!stack.isEmpty()) {
+			int c = stack.pop();
+			found.add(c);
+			int m = c;
+			do {
+				for (int i = 0; i < edges.degree(m); i++) {
+					int d = find(edges.target(m, i));
+					if (mark[d] != epoch && ord[d] >= lb && ord[d] <= ub) {
+						mark[d] = epoch;
+						stack.push(d);
+					}
+				}
+				m = next[m];
+			} while (m != c);
+		}
+		return found;
+	}
+
+	/*
+	@param components, components found by a search
+	@output the components not found by both searches, packed as (position << 32 | component)
+	and sorted by position.
+	*/
+	private long[] byOrder(IntArrayList components) {
+		long[] entries = new long[components.size()];
+		int k = 0;
+		for (int i = 0; i < components.size(); i++) {
+			int c = components.get(i);
+			if (inF[c] != epoch || inB[c] != epoch) {
+				entries[k++] = ((long) ord[c] << 32) | c;
+			}
+		}
+		entries = Arrays.copyOf(entries, k);
+		Arrays.sort(entries);
+		return entries;
+	}
+
+	private void place(int c, int position) {
+		ord[c] = position;
+		at[position] = c;
+	}
+
+	/*
+	Joins the components represented by a and b.
+	@output the representative of the joined component.
+	*/
+	private int join(int a, int b) {
+		a = find(a);
+		b = find(b);
+		if (a == b) {
+			return a;
+		}
+		if (size[a] < size[b]) {
+			int tmp = a;
+			a = b;
+			b = tmp;
+		}
+		parent[b] = a;
+		size[a] += size[b];
+		int tmp = next[a];
+		next[a] = next[b];
+		next[b] = tmp;
+		count--;
+		return a;
+	}
+
+	/* @output the representative of v's component, with path halving. */
+	private int find(int v) {
+		while (parent[v] != v) {
+			parent[v] = parent[parent[v]];
+			v = parent[v];
+		}
+		return v;
+	}
+
+	/*
+	@param v, vertex
+	@output the representative vertex of the strongly connected component of v.
+	*/
+	public int componentOf(int v) {
+		return find(v);
+	}
+
+	/* @output the number of strongly connected components. */
+	public int componentCount() {
+		return count;
+	}
+
+	/*
+	@output the representatives of the components in a topological order of the condensation.
+	*/
+	public int[] topologicalOrder() {
+		int[] order = new int[count];
+		int k = 0;
+		for (int p = 0; p < at.length; p++) {
+			if (at[p] != -1) {
+				order[k++] = at[p];
+			}
+		}
+		return order;
+	}
+
+	public static void main(String[] args) {
+		IncrementalSCC scc = new IncrementalSCC(6);
+		scc.addEdge(0, 1);
+		scc.addEdge(1, 2);
+		scc.addEdge(3, 4);
+		scc.addEdge(4, 5);
+		System.out.println(scc.componentCount() + " " + Arrays.toString(scc.topologicalOrder()));
+
+		System.out.println("2 -> 0 merged " + scc.addEdge(2, 0));
+		System.out.println("5 -> 1 merged " + scc.addEdge(5, 1));
+		System.out.println("2 -> 3 merged " + scc.addEdge(2, 3));
+		System.out.println(scc.componentCount() + " " + Arrays.toString(scc.topologicalOrder()));
+		System.out.println("same component 0, 5 " + (scc.componentOf(0) == scc.componentOf(5)));
+		// Example Output
+		/*
+		6 [0, 1, 2, 3, 4, 5]
+		2 -> 0 merged true
+		5 -> 1 merged false
+		2 -> 3 merged true
+		1 [3]
+		same component 0, 5 true
+		*/
+	}
+}
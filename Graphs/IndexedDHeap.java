@@ -0,0 +1,231 @@
+/**
+ * Implementation of an indexed d-ary min heap over the integer keys 0 .. capacity - 1.
+ * Each key is stored at most once and a position array maps every key to its slot in
+ * the heap, which lets decreaseKey sift the entry up in place instead of removing it.
+ * Priorities are stored as primitive longs so no objects are created per operation.
+ *
+ * Time Complexity: insert / decreaseKey O(log_d(V)), pollMin O(d * log_d(V))
+ */
+import java.util.Arrays;
+
+public class IndexedDHeap implements IntPriorityQueue {
+
+	private int arity;
+	private int size;
+	private int[] heap; // heap slot -> key
+	private int[] position; // key -> heap slot, -1 when the key is not in the heap
+	private long[] priority; // key -> priority
+
+	/*
+	@param capacity, the number of keys the heap can hold (keys 0 .. capacity - 1)
+	@param arity, the number of children of each heap node, at least 2
+	*/
+	public IndexedDHeap(int capacity, int arity) {
+		if (arity < 2) {
+			throw new IllegalArgumentException("arity must be at least 2");
+		}
+		this.arity = arity;
+		heap = new int[capacity];
+		position = new int[capacity];
+		priority = new long[capacity];
+		Arrays.fill(position, -1);
+	}
+
+	/*
+	@param capacity, the number of keys the heap can hold. Uses a 4-ary heap.
+	*/
+	public IndexedDHeap(int capacity) {
+		this(capacity, 4);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/*
+	@param key, key
+	@output true if the key is currently in the heap.
+	*/
+	public boolean contains(int key) {
+		return position[key] != -1;
+	}
+
+	/*
+	@param key, a key currently in the heap
+	@output the priority of the key
+	*/
+	public long priorityOf(int key) {
+		return priority[key];
+	}
+
+	/*
+	@output the smallest priority in the heap. The heap must not be empty.
+	*/
+	public long minPriority() {
+		return priority[heap[0]];
+	}
+
+	/*
+	@output the key with the smallest priority without removing it. The heap must not be empty.
+	*/
+	public int peek() {
+		return heap[0];
+	}
+
+	/*
+	Adds a key that is not already in the heap.
+	@param key, key
+	@param p, priority of the key
+	*/
+	public void insert(int key, long p) {
+		priority[key] = p;
+		heap[size] = key;
+		position[key] = size;
+		size++;
+		siftUp(size - 1);
+	}
+
+	/*
+	Lowers the priority of a key already in the heap. Does nothing if p is not smaller.
+	@param key, key
+	@param p, the new priority of the key
+	*/
+	public void decreaseKey(int key, long p) {
+		if (p < priority[key]) {
+			priority[key] = p;
+			siftUp(position[key]);
+		}
+	}
+
+	/*
+	Inserts the key, or lowers its priority if it is already in the heap.
+	@param key, key
+	@param p, priority of the key
+	*/
+	public void insertOrDecrease(int key, long p) {
+		if (position[key] == -1) {
+			insert(key, p);
+		} else {
+			decreaseKey(key, p);
+		}
+	}
+
+	/*
+	Same as insertOrDecrease. The heap never holds a key twice.
+	@param key, key
+	@param p, priority of the key
+	*/
+	public void push(int key, long p) {
+		insertOrDecrease(key, p);
+	}
+
+	/*
+	Removes the key with the smallest priority. The heap must not be empty.
+	@output the removed key
+	*/
+	public int pollMin() {
+		int min = heap[0];
+		size--;
+		position[min] = -1;
+		if (size > 0) {
+			int last = heap[size];
+			heap[0] = last;
+			position[last] = 0;
+			siftDown(0);
+		}
+		return min;
+	}
+
+	/*
+	Removes every key still in the heap. Only the slots that are in use are touched,
+	so clearing costs O(size) rather than O(capacity).
+	*/
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			position[heap[i]] = -1;
+		}
+		size = 0;
+	}
+
+	/*
+	Moves the entry in slot i up until its parent has a smaller or equal priority.
+	@param i, heap slot
+	*/
+	private void siftUp(int i) {
+		int key = heap[i];
+		long p = priority[key];
+		while (i > 0) {
+			int parent = (i - 1) / arity;
+			int parentKey = heap[parent];
+			if (priority[parentKey] <= p) {
+				break;
+			}
+			heap[i] = parentKey;
+			position[parentKey] = i;
+			i = parent;
+		}
+		heap[i] = key;
+		position[key] = i;
+	}
+
+	/*
+	Moves the entry in slot i down until all of its children have a larger or equal priority.
+	@param i, heap slot
+	*/
+	private void siftDown(int i) {
+		int key = heap[i];
+		long p = priority[key];
+		while (true) {
+			int first = i * arity + 1;
+			if (first >= size) {
+				break;
+			}
+			int last = Math.min(first + arity, size);
+			int best = first;
+			long bestPriority = priority[heap[first]];
+			for (int c = first + 1; c < last; c++) {
+				long cp = priority[heap[c]];
+				if (cp < bestPriority) {
+					best = c;
+					bestPriority = cp;
+				}
+			}
+			if (bestPriority >= p) {
+				break;
+			}
+			int childKey = heap[best];
+			heap[i] = childKey;
+			position[childKey] = i;
+			i = best;
+		}
+		heap[i] = key;
+		position[key] = i;
+	}
+
+	public static void main(String[] args) {
+		IndexedDHeap pq = new IndexedDHeap(8, 3);
+		pq.insert(0, 7);
+		pq.insert(1, 3);
+		pq.insert(2, 9);
+		pq.insert(3, 5);
+		pq.decreaseKey(2, 1);
+		pq.insertOrDecrease(4, 4);
+
+		while (!pq.isEmpty()) {
+			long p = pq.minPriority();
+			System.out.println(pq.pollMin() + " " + p);
+		}
+		// Example Output
+		/*
+		2 1
+		1 3
+		4 4
+		3 5
+		0 7
+		*/
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ * Growable list of primitive ints. Unlike ArrayList<Integer> the elements are stored in one
+ * int array, so adding and reading them allocates no boxes and follows no pointers.
+ *
+ * Time Complexity: O(1) amortized add, O(1) get and set
+ */
+import java.util.Arrays;
+
+public class IntArrayList {
+	private int[] data;
+	private int size;
+
+	public IntArrayList() {
+		this(8);
+	}
+
+	/*
+	@param capacity, initial capacity
+	*/
+	public IntArrayList(int capacity) {
+		data = new int[Math.max(capacity, 1)];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/*
+	Appends x to the end of the list.
+	@param x, value
+	*/
+	public void add(int x) {
+		if (size == data.length) {
+			data = Arrays.copyOf(data, size * 2);
+		}
+		data[size++] = x;
+	}
+
+	/*
+	@param i, index
+	@output the element at index i.
+	*/
+	public int get(int i) {
+		if (i >= size) {
+			throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+		}
+		return data[i];
+	}
+
+	/*
+	@param i, index
+	@param x, the new element at index i
+	*/
+	public void set(int i, int x) {
+		if (i >= size) {
+			throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+		}
+		data[i] = x;
+	}
+
+	/*
+	Removes the last element.
+	@output the removed element.
+	*/
+	public int removeLast() {
+		if (size == 0) {
+			throw new IllegalStateException("List is empty");
+		}
+		return data[--size];
+	}
+
+	/*
+	Removes every element and keeps the capacity.
+	*/
+	public void clear() {
+		size = 0;
+	}
+
+	/*
+	@output a copy of the elements.
+	*/
+	public int[] toArray() {
+		return Arrays.copyOf(data, size);
+	}
+
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+}
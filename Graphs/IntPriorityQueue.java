@@ -0,0 +1,29 @@
+/**
+ * A min priority queue of integer keys with long priorities, used by the shortest path
+ * searches so that the queue implementation can be chosen per graph. push either inserts a
+ * key or lowers its priority. Implementations that cannot find an existing entry cheaply may
+ * keep the old entry and return the key again later, so callers must skip keys they have
+ * already settled when they are polled.
+ */
+public interface IntPriorityQueue {
+
+	/*
+	Adds the key with priority p, or lowers the priority of the key to p.
+	@param key, key
+	@param p, priority
+	*/
+	void push(int key, long p);
+
+	/*
+	Removes an entry with the smallest priority. The queue must not be empty.
+	@output the key of the removed entry
+	*/
+	int pollMin();
+
+	boolean isEmpty();
+
+	/*
+	Removes every entry from the queue.
+	*/
+	void clear();
+}
@@ -0,0 +1,85 @@
+/**
+ * First-in first-out queue of primitive ints stored in a ring buffer. The head and tail wrap
+ * around the array, and the array doubles when it is full, so a queue that is drained as it
+ * is filled never reallocates. It replaces ArrayDeque<Integer>, which boxes every element.
+ *
+ * Time Complexity: O(1) amortized add, O(1) poll and peek
+ */
+public class IntQueue {
+	private int[] data; // capacity is a power of two
+	private int head; // index of the first element
+	private int size;
+
+	public IntQueue() {
+		this(8);
+	}
+
+	/*
+	@param capacity, initial capacity, rounded up to a power of two
+	*/
+	public IntQueue(int capacity) {
+		data = new int[Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/*
+	@param x, value added to the tail of the queue
+	*/
+	public void add(int x) {
+		if (size == data.length) {
+			grow();
+		}
+		data[(head + size++) & (data.length - 1)] = x;
+	}
+
+	/*
+	Removes the head of the queue.
+	@output the removed element.
+	*/
+	public int poll() {
+		if (size == 0) {
+			throw new IllegalStateException("Queue is empty");
+		}
+		int x = data[head];
+		head = (head + 1) & (data.length - 1);
+		size--;
+		return x;
+	}
+
+	/*
+	@output the head of the queue, without removing it.
+	*/
+	public int peek() {
+		if (size == 0) {
+			throw new IllegalStateException("Queue is empty");
+		}
+		return data[head];
+	}
+
+	/*
+	Removes every element and keeps the capacity.
+	*/
+	public void clear() {
+		head = 0;
+		size = 0;
+	}
+
+	/*
+	Doubles the capacity and unwraps the elements to the start of the new array.
+	*/
+	private void grow() {
+		int[] bigger = new int[data.length * 2];
+		int first = data.length - head;
+		System.arraycopy(data, head, bigger, 0, first);
+		System.arraycopy(data, 0, bigger, first, head);
+		data = bigger;
+		head = 0;
+	}
+}
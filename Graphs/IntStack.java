@@ -0,0 +1,69 @@
+/**
+ * Last-in first-out stack of primitive ints backed by a growable array. It replaces
+ * java.util.Stack<Integer>, which is a synchronized Vector that boxes every element.
+ *
+ * Time Complexity: O(1) amortized push, O(1) pop and peek
+ */
+import java.util.Arrays;
+
+public class IntStack {
+	private int[] data;
+	private int size;
+
+	public IntStack() {
+		this(8);
+	}
+
+	/*
+	@param capacity, initial capacity
+	*/
+	public IntStack(int capacity) {
+		data = new int[Math.max(capacity, 1)];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/*
+	@param x, value pushed on top of the stack
+	*/
+	public void push(int x) {
+		if (size == data.length) {
+			data = Arrays.copyOf(data, size * 2);
+		}
+		data[size++] = x;
+	}
+
+	/*
+	Removes the top of the stack.
+	@output the removed element.
+	*/
+	public int pop() {
+		if (size == 0) {
+			throw new IllegalStateException("Stack is empty");
+		}
+		return data[--size];
+	}
+
+	/*
+	@output the top of the stack, without removing it.
+	*/
+	public int peek() {
+		if (size == 0) {
+			throw new IllegalStateException("Stack is empty");
+		}
+		return data[size - 1];
+	}
+
+	/*
+	Removes every element and keeps the capacity.
+	*/
+	public void clear() {
+		size = 0;
+	}
+}
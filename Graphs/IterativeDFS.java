@@ -0,0 +1,170 @@
+/**
+ * Depth First Search engine that runs without recursion. The search path is kept on an explicit
+ * int stack, and every stack frame stores a cursor to the next edge of its vertex, so a vertex's
+ * remaining edges are resumed after its child finishes exactly as a recursive search would.
+ * A Visitor receives the same events a recursive search can observe: discovery and finish of a
+ * vertex, and each edge classified as a tree edge, a back edge to a vertex still on the stack,
+ * or a forward or cross edge to a finished vertex. The depth of the search is limited only by
+ * the size of the graph, not by the size of the thread stack.
+ *
+ * In an undirected graph every edge is stored in both directions, so each tree edge (u, v) is
+ * seen a second time from v as a back edge (v, u) to its parent.
+ *
+ * Time Complexity: O(V + E)
+ */
+import java.util.Arrays;
+
+public class IterativeDFS {
+
+	private CSRGraph g;
+	private int[] stack; // vertices on the search path
+	private int[] cursor; // cursor[i] = next edge of stack[i] to examine
+	private int[] discovered; // discovered[v] == epoch once v has been discovered
+	private int[] finished; // finished[v] == epoch once v has been finished
+	private int epoch = 1;
+
+	/*
+	@param g, the graph
+	*/
+	public IterativeDFS(CSRGraph g) {
+		this.g = g;
+		int n = g.vertexCount();
+		stack = new int[n];
+		cursor = new int[n];
+		discovered = new int[n];
+		finished = new int[n];
+	}
+
+	/*
+	Forgets every vertex discovered since the last reset.
+	*/
+	public void reset() {
+		epoch++;
+		if (epoch == Integer.MAX_VALUE) {
+			Arrays.fill(discovered, 0);
+			Arrays.fill(finished, 0);
+			epoch = 1;
+		}
+	}
+
+	public boolean isDiscovered(int v) {
+		return discovered[v] == epoch;
+	}
+
+	public boolean isFinished(int v) {
+		return finished[v] == epoch;
+	}
+
+	/*
+	Searches from root. Vertices discovered by earlier calls since the last reset are not entered
+	again, so calls with several roots build a depth first forest.
+	@param root, start vertex
+	@param visitor, receives the events of the search
+	*/
+	public void run(int root, Visitor visitor) {
+		if (discovered[root] == epoch) {
+			return;
+		}
+		int[] offsets = g.offsets;
+		int[] targets = g.targets;
+		int top = 0;
+		discovered[root] = epoch;
+		visitor.discover(root);
+		stack[top] = root;
+		cursor[top++] = offsets[root];
+
+		while (top > 0) {
+			int u = stack[top - 1];
+			int e = cursor[top - 1];
+			if (e == offsets[u + 1]) {
+				top--;
+				finished[u] = epoch;
+				visitor.finish(u);
+				continue;
+			}
+			cursor[top - 1] = e + 1;
+			int w = targets[e];
+			if (discovered[w] != epoch) {
+				visitor.treeEdge(u, w);
+				discovered[w] = epoch;
+				visitor.discover(w);
+				stack[top] = w;
+				cursor[top++] = offsets[w];
+			} else if (finished[w] != epoch) {
+				visitor.backEdge(u, w);
+			} else {
+				visitor.forwardOrCrossEdge(u, w);
+			}
+		}
+	}
+
+	/*
+	Searches from every undiscovered vertex in increasing order.
+	@param visitor, receives the events of the search
+	*/
+	public void runAll(Visitor visitor) {
+		for (int v = 0; v < g.vertexCount(); v++) {
+			run(v, visitor);
+		}
+	}
+
+	/* Receives the events of a search. Every method does nothing unless overridden. */
+	public interface Visitor {
+		/* v is reached for the first time, before any of its edges are examined. */
+		default void discover(int v) {
+		}
+
+		/* every edge of v has been examined and all of v's descendants are finished. */
+		default void finish(int v) {
+		}
+
+		/* the search continues from u to the undiscovered vertex v. */
+		default void treeEdge(int u, int v) {
+		}
+
+		/* v is an ancestor of u still on the search path. */
+		default void backEdge(int u, int v) {
+		}
+
+		/* v is already finished, so it is a descendant of u or in an earlier branch. */
+		default void forwardOrCrossEdge(int u, int v) {
+		}
+	}
+
+	public static void main(String[] args) {
+		// 0 -> 1 -> 2 -> 0 and 1 -> 3, 0 -> 3
+		int[] offsets = {0, 2, 4, 5, 5};
+		int[] targets = {1, 3, 2, 3, 0};
+		IterativeDFS dfs = new IterativeDFS(new CSRGraph(offsets, targets, null));
+		dfs.runAll(new Visitor() {
+			public void discover(int v) {
+				System.out.println("discover " + v);
+			}
+
+			public void finish(int v) {
+				System.out.println("finish " + v);
+			}
+
+			public void backEdge(int u, int v) {
+				System.out.println("back " + u + " " + v);
+			}
+
+			public void forwardOrCrossEdge(int u, int v) {
+				System.out.println("forward/cross " + u + " " + v);
+			}
+		});
+		// Example Output
+		/*
+		discover 0
+		discover 1
+		discover 2
+		back 2 0
+		finish 2
+		discover 3
+		finish 3
+		finish 1
+		forward/cross 0 3
+		finish 0
+		*/
+	}
+}
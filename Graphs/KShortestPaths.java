@@ -0,0 +1,206 @@
+/**
+ * Implementation of Yen's Algorithm to find the k shortest loopless paths from s to t in a
+ * graph with non-negative edge weights. After the i-th shortest path is found, every vertex on
+ * it except t is tried as a spur vertex: the part of the path before the spur vertex (the root)
+ * is kept, the edges that earlier paths with the same root take out of the spur vertex are
+ * removed, the root's vertices are removed, and the shortest spur path from the spur vertex to
+ * t completes a new candidate. The cheapest candidate becomes the next path.
+ *
+ * The removals are recorded as blocks in one Dijkstra workspace instead of copying the graph.
+ * Spur searches run A* with the exact distances to t in the full graph as the heuristic, which
+ * stays admissible when edges are removed. The same distances give a lower bound on every
+ * candidate a spur vertex can produce, so spur vertices that cannot beat the candidates already
+ * found are skipped without a search.
+ *
+ * Time Complexity: O(k * V * (V + E) * log(V)) worst case
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public class KShortestPaths {
+	private static final int INF = Integer.MAX_VALUE;
+
+	private Dijkstra dj;
+	private Dijkstra.Workspace ws;
+
+	/*
+	@param dj, the graph
+	*/
+	public KShortestPaths(Dijkstra dj) {
+		this.dj = dj;
+		ws = dj.newWorkspace();
+	}
+
+	/*
+	Finds up to k shortest loopless paths from s to t, in order of increasing cost.
+	@param s, start vertex
+	@param t, target vertex
+	@param k, the number of paths
+	@output the paths found, fewer than k if the graph has fewer loopless paths.
+	*/
+	public List<Path> find(int s, int t, int k) {
+		List<Path> paths = new ArrayList<>();
+		int[] toTarget = dj.reverseShortestPath(t);
+		if (k <= 0 || toTarget[s] == INF) {
+			return paths;
+		}
+		Dijkstra.Heuristic h = (v, target) -> toTarget[v];
+
+		ws.clearBlocks();
+		dj.shortestPath(s, t, h, ws);
+		paths.add(spurPath(null, 0, t));
+
+		PriorityQueue<Path> candidates = new PriorityQueue<>();
+		HashSet<Path> seen = new HashSet<>(paths);
+		while (paths.size() < k) {
+			Path previous = paths.get(paths.size() - 1);
+			for (int i = 0; i + 1 < previous.vertices.length; i++) {
+				int spur = previous.vertices[i];
+				long bound = (long) previous.costs[i] + toTarget[spur];
+				if (!canImprove(candidates, k - paths.size(), bound)) {
+					continue;
+				}
+
+				ws.clearBlocks();
+				for (Path p : paths) {
+					if (p.vertices.length > i + 1 && sameRoot(p, previous, i)) {
+						dj.blockEdges(ws, spur, p.vertices[i + 1]);
+					}
+				}
+				for (int j = 0; j < i; j++) {
+					ws.blockVertex(previous.vertices[j]);
+				}
+
+				if (dj.shortestPath(spur, t, h, ws) == INF) {
+					continue;
+				}
+				Path candidate = spurPath(previous, i, t);
+				if (seen.add(candidate)) {
+					candidates.add(candidate);
+				}
+			}
+			if (candidates.isEmpty()) {
+				break;
+			}
+			paths.add(candidates.poll());
+		}
+		ws.clearBlocks();
+		return paths;
+	}
+
+	/*
+	@param candidates, the candidate paths found so far
+	@param needed, the number of paths still needed
+	@param bound, a lower bound on the cost of any new candidate
+	@output false if at least needed candidates already cost no more than bound.
+	*/
+	private boolean canImprove(PriorityQueue<Path> candidates, int needed, long bound) {
+		if (bound >= INF) {
+			return false;
+		}
+		int cheaper = 0;
+		for (Path p : candidates) {
+			if (p.cost <= bound && ++cheaper >= needed) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	@output true if a and b visit the same vertices up to and including index i.
+	*/
+	private boolean sameRoot(Path a, Path b, int i) {
+		for (int j = 0; j <= i; j++) {
+			if (a.vertices[j] != b.vertices[j]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	Joins the root of a previous path with the spur path found by the last search in ws.
+	@param root, the path the root is taken from, or null if there is no root
+	@param i, index of the spur vertex in root
+	@param t, target vertex
+	@output the combined path.
+	*/
+	private Path spurPath(Path root, int i, int t) {
+		int[] spur = ws.path(t);
+		int rootLength = root == null ? 0 : i;
+		int rootCost = root == null ? 0 : root.costs[i];
+		int[] vertices = new int[rootLength + spur.length];
+		int[] costs = new int[vertices.length];
+		for (int j = 0; j < rootLength; j++) {
+			vertices[j] = root.vertices[j];
+			costs[j] = root.costs[j];
+		}
+		for (int j = 0; j < spur.length; j++) {
+			vertices[rootLength + j] = spur[j];
+			costs[rootLength + j] = rootCost + ws.distance(spur[j]);
+		}
+		return new Path(vertices, costs);
+	}
+
+	/* A path from s to t with the cost of reaching each of its vertices. */
+	public static class Path implements Comparable<Path> {
+		private int[] vertices;
+		private int[] costs; // costs[i] = cost of the path up to vertices[i]
+		private int cost;
+
+		private Path(int[] vertices, int[] costs) {
+			this.vertices = vertices;
+			this.costs = costs;
+			this.cost = costs[costs.length - 1];
+		}
+
+		public int[] getVertices() {
+			return vertices;
+		}
+
+		public int getCost() {
+			return cost;
+		}
+
+		public int compareTo(Path p) {
+			return Integer.compare(cost, p.cost);
+		}
+
+		public boolean equals(Object o) {
+			return o instanceof Path && Arrays.equals(vertices, ((Path) o).vertices);
+		}
+
+		public int hashCode() {
+			return Arrays.hashCode(vertices);
+		}
+	}
+
+	public static void main(String[] args) {
+		// C, D, E, F, G, H as vertices 1 to 6
+		Dijkstra dj = new Dijkstra(6);
+		dj.addEdge(1, 2, 3);
+		dj.addEdge(1, 3, 2);
+		dj.addEdge(2, 4, 4);
+		dj.addEdge(3, 2, 1);
+		dj.addEdge(3, 4, 2);
+		dj.addEdge(3, 5, 3);
+		dj.addEdge(4, 5, 2);
+		dj.addEdge(4, 6, 1);
+		dj.addEdge(5, 6, 2);
+
+		KShortestPaths yen = new KShortestPaths(dj);
+		for (Path p : yen.find(1, 6, 3)) {
+			System.out.println(p.getCost() + " " + Arrays.toString(p.getVertices()));
+		}
+		// Example Output
+		/*
+		5 [1, 3, 4, 6]
+		7 [1, 3, 5, 6]
+		8 [1, 3, 4, 5, 6]
+		*/
+	}
+}
@@ -0,0 +1,196 @@
+/**
+ * Implementation of the ALT (A*, Landmarks, Triangle inequality) heuristic for Dijkstra's
+ * A* search. A small set of landmark vertices is chosen and the shortest distances from every
+ * landmark to every vertex, and from every vertex to every landmark, are precomputed. For a
+ * landmark L the triangle inequality gives two lower bounds on the distance from v to t:
+ *
+ *     d(v, t) >= d(L, t) - d(L, v)        d(v, t) >= d(v, L) - d(t, L)
+ *
+ * and the heuristic is the largest of these bounds over all landmarks. Landmarks are picked
+ * greedily so that each new landmark is as far as possible from the ones already chosen.
+ * The tables can be saved to a file so that preprocessing only runs once per graph.
+ *
+ * Time Complexity: O(k * (V + E) * log(V)) preprocessing, O(k) per estimate
+ */
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+public class Landmarks implements Dijkstra.Heuristic {
+	private static final int MAGIC = 0x414c5431; // "ALT1"
+	private static final int INF = Integer.MAX_VALUE;
+
+	private int n, k;
+	private int[] landmarks;
+	private int[] from; // from[v * k + i] = d(landmark i, v)
+	private int[] to; // to[v * k + i] = d(v, landmark i)
+
+	private Landmarks(int n, int k) {
+		this.n = n;
+		this.k = k;
+		landmarks = new int[k];
+		from = new int[n * k];
+		to = new int[n * k];
+	}
+
+	/*
+	Selects up to k landmarks and precomputes their distance tables with Dijkstra's Algorithm.
+	@param dj, the graph
+	@param k, the number of landmarks
+	@output the landmark tables for the graph.
+	*/
+	public static Landmarks build(Dijkstra dj, int k) {
+		int n = dj.freeze().vertexCount();
+		k = Math.max(1, Math.min(k, n));
+		Landmarks alt = new Landmarks(n, k);
+
+		// closest[v] = distance from the nearest chosen landmark to v
+		long[] closest = new long[n];
+		int[] first = dj.shortestPath(0);
+		int next = 0;
+		for (int v = 0; v < n; v++) {
+			if (first[v] != INF && first[v] > first[next]) {
+				next = v;
+			}
+			closest[v] = Long.MAX_VALUE;
+		}
+
+		for (int i = 0; i < k; i++) {
+			alt.landmarks[i] = next;
+			int[] forward = dj.shortestPath(next);
+			int[] backward = dj.reverseShortestPath(next);
+			for (int v = 0; v < n; v++) {
+				alt.from[v * k + i] = forward[v];
+				alt.to[v * k + i] = backward[v];
+				if (forward[v] != INF) {
+					closest[v] = Math.min(closest[v], forward[v]);
+				}
+			}
+
+			// the next landmark is the reachable vertex farthest from all chosen landmarks
+			long farthest = -1;
+			for (int v = 0; v < n; v++) {
+				if (closest[v] != Long.MAX_VALUE && closest[v] > farthest) {
+					farthest = closest[v];
+					next = v;
+				}
+			}
+		}
+		return alt;
+	}
+
+	/*
+	@param vertex, vertex
+	@param target, target vertex
+	@output the largest triangle inequality lower bound on the distance from vertex to target.
+	*/
+	public int estimate(int vertex, int target) {
+		int best = 0;
+		int vi = vertex * k;
+		int ti = target * k;
+		for (int i = 0; i < k; i++) {
+			int lv = from[vi + i];
+			int lt = from[ti + i];
+			if (lv != INF && lt != INF && lt - lv > best) {
+				best = lt - lv;
+			}
+			int vl = to[vi + i];
+			int tl = to[ti + i];
+			if (vl != INF && tl != INF && vl - tl > best) {
+				best = vl - tl;
+			}
+		}
+		return best;
+	}
+
+	public int[] getLandmarks() {
+		return landmarks;
+	}
+
+	/*
+	Writes the landmark tables to a binary file.
+	@param path, file path
+	*/
+	public void save(String path) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(n);
+			out.writeInt(k);
+			for (int i = 0; i < k; i++) {
+				out.writeInt(landmarks[i]);
+			}
+			for (int i = 0; i < n * k; i++) {
+				out.writeInt(from[i]);
+			}
+			for (int i = 0; i < n * k; i++) {
+				out.writeInt(to[i]);
+			}
+		}
+	}
+
+	/*
+	Reads landmark tables written by save.
+	@param path, file path
+	@output the landmark tables.
+	*/
+	public static Landmarks load(String path) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a landmark file: " + path);
+			}
+			int n = in.readInt();
+			int k = in.readInt();
+			Landmarks alt = new Landmarks(n, k);
+			for (int i = 0; i < k; i++) {
+				alt.landmarks[i] = in.readInt();
+			}
+			for (int i = 0; i < n * k; i++) {
+				alt.from[i] = in.readInt();
+			}
+			for (int i = 0; i < n * k; i++) {
+				alt.to[i] = in.readInt();
+			}
+			return alt;
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		// 10 x 10 grid with unit weights in both directions
+		int side = 10;
+		Dijkstra dj = new Dijkstra(side * side - 1);
+		for (int r = 0; r < side; r++) {
+			for (int c = 0; c < side; c++) {
+				int v = r * side + c;
+				if (c + 1 < side) {
+					dj.addEdge(v, v + 1, 1);
+					dj.addEdge(v + 1, v, 1);
+				}
+				if (r + 1 < side) {
+					dj.addEdge(v, v + side, 1);
+					dj.addEdge(v + side, v, 1);
+				}
+			}
+		}
+
+		Landmarks alt = Landmarks.build(dj, 4);
+		File file = File.createTempFile("landmarks", ".alt");
+		alt.save(file.getPath());
+		Landmarks loaded = Landmarks.load(file.getPath());
+		file.delete();
+
+		System.out.println("0 -> 99 " + dj.shortestPath(0, 99));
+		System.out.println("0 -> 99 " + dj.shortestPath(0, 99, loaded));
+		System.out.println("45 -> 7 " + dj.shortestPath(45, 7, loaded));
+		// Example Output
+		/*
+		0 -> 99 18
+		0 -> 99 18
+		45 -> 7 6
+		*/
+	}
+}
@@ -0,0 +1,409 @@
+/**
+ * Multi-core strongly connected components for large directed graphs, in three phases:
+ *
+ *     1. Trim: a vertex with no remaining incoming or no remaining outgoing edge is a
+ *        component on its own. A few parallel rounds remove most such vertices.
+ *     2. Forward-backward: the vertices both reachable from a pivot and reaching it are the
+ *        pivot's component. Both searches are parallel level-synchronous BFS, and one pivot
+ *        with many edges usually takes out the single giant component.
+ *     3. Coloring: every remaining vertex starts with its own id as color and the largest color
+ *        is propagated forward along edges until nothing changes. A vertex that keeps its own
+ *        color is the root of a component, made of the vertices of its color that reach it
+ *        backwards. The many small components are found together, one backward search per root
+ *        in parallel, and the phase repeats on the vertices left over.
+ *
+ * The component ids are numbered differently from Tarjan's, so equivalent compares the
+ * partitions two labelings describe.
+ *
+ * Time Complexity: O((V + E) * D) work worst case, where D is the number of coloring rounds
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class ParallelSCC {
+	private static final int TRIM_ROUNDS = 3;
+	private static final int SEQUENTIAL_CUTOFF = 4096; // smaller ranges run on one thread
+
+	private Tarjan tarjan;
+	private int threads;
+
+	private CSRGraph forward, backward;
+	private int[] comp; // representative vertex of each assigned vertex's component, -1 if unassigned
+	private ForkJoinPool pool;
+
+	private int[] components;
+	private int count;
+
+	/*
+	@param tarjan, the directed graph
+	@param threads, number of worker threads
+	*/
+	public ParallelSCC(Tarjan tarjan, int threads) {
+		this.tarjan = tarjan;
+		this.threads = threads;
+	}
+
+	/*
+	Finds the strongly connected components of the graph.
+	@output components[v], the id of the component of v, from 0 to componentCount() - 1.
+	*/
+	public int[] compute() {
+		forward = tarjan.freeze();
+		backward = forward.reverse();
+		int n = forward.vertexCount();
+		comp = new int[n];
+		Arrays.fill(comp, -1);
+		pool = new ForkJoinPool(threads);
+
+		try {
+			trim();
+			forwardBackward();
+			while (color()) {
+				trim();
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		// number the components by their representatives
+		components = new int[n];
+		int[] id = new int[n];
+		Arrays.fill(id, -1);
+		count = 0;
+		for (int v = 0; v < n; v++) {
+			int r = comp[v];
+			if (id[r] == -1) {
+				id[r] = count++;
+			}
+			components[v] = id[r];
+		}
+		return components;
+	}
+
+	/* @output the number of components found by the last compute. */
+	public int componentCount() {
+		return count;
+	}
+
+	/*
+	Assigns every unassigned vertex without an unassigned predecessor or successor to a
+	component of its own, for up to TRIM_ROUNDS rounds.
+	*/
+	private void trim() {
+		int n = forward.vertexCount();
+		boolean[] trimmed = new boolean[n];
+		for (int round = 0; round < TRIM_ROUNDS; round++) {
+			AtomicBoolean changed = new AtomicBoolean();
+			parallelFor(n, (lo, hi) -> {
+				for (int v = lo; v < hi; v++) {
+					if (comp[v] == -1 && (!hasActiveEdge(forward, v) || !hasActiveEdge(backward, v))) {
+						trimmed[v] = true;
+						changed.set(true);
+					}
+				}
+			});
+			if (!changed.get()) {
+				return;
+			}
+			parallelFor(n, (lo, hi) -> {
+				for (int v = lo; v < hi; v++) {
+					if (trimmed[v]) {
+						comp[v] = v;
+						trimmed[v] = false;
+					}
+				}
+			});
+		}
+	}
+
+	/*
+	@output true if v has an edge in g to another unassigned vertex.
+	*/
+	private boolean hasActiveEdge(CSRGraph g, int v) {
+		for (int e = g.offsets[v]; e < g.offsets[v + 1]; e++) {
+			int w = g.targets[e];
+			if (w != v && comp[w] == -1) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	Assigns the component of the unassigned vertex with the most edges, found as the
+	intersection of the vertices it reaches and the vertices that reach it.
+	*/
+	private void forwardBackward() {
+		int n = forward.vertexCount();
+		int pivot = -1;
+		long best = -1;
+		for (int v = 0; v < n; v++) {
+			long edges = (long) forward.degree(v) * backward.degree(v);
+			if (comp[v] == -1 && edges > best) {
+				best = edges;
+				pivot = v;
+			}
+		}
+		if (pivot == -1) {
+			return;
+		}
+		AtomicLongArray reached = reach(forward, pivot);
+		AtomicLongArray reaching = reach(backward, pivot);
+		int p = pivot;
+		parallelFor((n + 63) >>> 6, (lo, hi) -> {
+			for (int i = lo; i < hi; i++) {
+				for (long both = reached.get(i) & reaching.get(i); both != 0; both &= both - 1) {
+					comp[(i << 6) + Long.numberOfTrailingZeros(both)] = p;
+				}
+			}
+		});
+	}
+
+	/*
+	Level-synchronous parallel Breadth First Search over the unassigned vertices.
+	@param g, the graph to search, forward or backward
+	@param source, start vertex
+	@output a bitmap of the vertices reached.
+	*/
+	private AtomicLongArray reach(CSRGraph g, int source) {
+		AtomicLongArray visited = new AtomicLongArray((g.vertexCount() + 63) >>> 6);
+		claim(visited, source);
+		int[] frontier = {source};
+		while (frontier.length > 0) {
+			int[] current = frontier;
+			int chunks = current.length < SEQUENTIAL_CUTOFF ? 1 : threads * 4;
+			int chunkSize = (current.length + chunks - 1) / chunks;
+			List<Callable<IntArrayList>> tasks = new ArrayList<>();
+			for (int from = 0; from < current.length; from += chunkSize) {
+				int lo = from;
+				int hi = Math.min(from + chunkSize, current.length);
+				tasks.add(() -> {
+					IntArrayList found = new IntArrayList();
+					for (int i = lo; i < hi; i++) {
+						int u = current[i];
+						for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+							int w = g.targets[e];
+							if (comp[w] == -1 && claim(visited, w)) {
+								found.add(w);
+							}
+						}
+					}
+					return found;
+				});
+			}
+			IntArrayList next = new IntArrayList();
+			for (IntArrayList part : invokeAll(tasks)) {
+				for (int i = 0; i < part.size(); i++) {
+					next.add(part.get(i));
+				}
+			}
+			frontier = next.toArray();
+		}
+		return visited;
+	}
+
+	/*
+	Sets the bit of w in the bitmap.
+	@output true if this call set it, false if it was already set.
+	*/
+	private static boolean claim(AtomicLongArray bits, int w) {
+		int i = w >>> 6;
+		long bit = 1L << w;
+		long old = bits.get(i);
+		while ((old & bit) == 0) {
+			if (bits.compareAndSet(i, old, old | bit)) {
+				return true;
+			}
+			old = bits.get(i);
+		}
+		return false;
+	}
+
+	/*
+	One coloring round over the unassigned vertices.
+	@output false if every vertex was already assigned.
+	*/
+	private boolean color() {
+		int n = forward.vertexCount();
+		AtomicIntegerArray color = new AtomicIntegerArray(n);
+		AtomicBoolean active = new AtomicBoolean();
+		parallelFor(n, (lo, hi) -> {
+			for (int v = lo; v < hi; v++) {
+				color.set(v, v);
+				if (comp[v] == -1) {
+					active.set(true);
+				}
+			}
+		});
+		if (!active.get()) {
+			return false;
+		}
+
+		// push the largest color forward until no vertex changes
+		AtomicBoolean changed = new AtomicBoolean(true);
+		while (changed.get()) {
+			changed.set(false);
+			parallelFor(n, (lo, hi) -> {
+				for (int u = lo; u < hi; u++) {
+					if (comp[u] != -1) {
+						continue;
+					}
+					int cu = color.get(u);
+					for (int e = forward.offsets[u]; e < forward.offsets[u + 1]; e++) {
+						int w = forward.targets[e];
+						if (comp[w] != -1) {
+							continue;
+						}
+						int cw = color.get(w);
+						while (cu > cw) {
+							if (color.compareAndSet(w, cw, cu)) {
+								changed.set(true);
+								break;
+							}
+							cw = color.get(w);
+						}
+					}
+				}
+			});
+		}
+
+		// each root collects the vertices of its color that reach it
+		IntArrayList roots = new IntArrayList();
+		for (int v = 0; v < n; v++) {
+			if (comp[v] == -1 && color.get(v) == v) {
+				roots.add(v);
+			}
+		}
+		parallelFor(roots.size(), (lo, hi) -> {
+			IntQueue queue = new IntQueue();
+			for (int i = lo; i < hi; i++) {
+				int r = roots.get(i);
+				comp[r] = r;
+				queue.add(r);
+				while (!queue.isEmpty()) {
+					int u = queue.poll();
+					for (int e = backward.offsets[u]; e < backward.offsets[u + 1]; e++) {
+						int w = backward.targets[e];
+						if (comp[w] == -1 && color.get(w) == r) {
+							comp[w] = r;
+							queue.add(w);
+						}
+					}
+				}
+			}
+		});
+		return true;
+	}
+
+	/*
+	Splits the range [0, n) into chunks and runs them on the worker threads.
+	@param n, size of the range
+	@param body, the work for one chunk
+	*/
+	private void parallelFor(int n, RangeTask body) {
+		if (n < SEQUENTIAL_CUTOFF || threads == 1) {
+			body.run(0, n);
+			return;
+		}
+		int chunks = threads * 4;
+		int chunkSize = (n + chunks - 1) / chunks;
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int from = 0; from < n; from += chunkSize) {
+			int lo = from;
+			int hi = Math.min(from + chunkSize, n);
+			tasks.add(() -> {
+				body.run(lo, hi);
+				return null;
+			});
+		}
+		invokeAll(tasks);
+	}
+
+	/*
+	Runs the tasks on the pool and waits for all of them.
+	@output the results in task order.
+	*/
+	private <T> List<T> invokeAll(List<Callable<T>> tasks) {
+		List<T> results = new ArrayList<>();
+		try {
+			for (Future<T> f : pool.invokeAll(tasks)) {
+				results.add(f.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while finding components", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Component worker failed", e.getCause());
+		}
+		return results;
+	}
+
+	/*
+	@param a, component ids or labels of every vertex
+	@param b, component ids or labels of every vertex
+	@output true if a and b group the vertices into the same components.
+	*/
+	public static boolean equivalent(int[] a, int[] b) {
+		if (a.length != b.length) {
+			return false;
+		}
+		HashMap<Integer, Integer> aToB = new HashMap<>();
+		HashMap<Integer, Integer> bToA = new HashMap<>();
+		for (int v = 0; v < a.length; v++) {
+			Integer x = aToB.putIfAbsent(a[v], b[v]);
+			Integer y = bToA.putIfAbsent(b[v], a[v]);
+			if ((x != null && x != b[v]) || (y != null && y != a[v])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	Finds the components with compute and with Tarjan's Algorithm, and compares.
+	@output true if both found the same components.
+	*/
+	public boolean verify() {
+		return equivalent(compute(), tarjan.components());
+	}
+
+	/* Work on the index range [lo, hi). */
+	private interface RangeTask {
+		void run(int lo, int hi);
+	}
+
+	public static void main(String[] args) {
+		Tarjan t = new Tarjan(8);
+		t.addEdge(0, 1);
+		t.addEdge(1, 2);
+		t.addEdge(2, 0);
+		t.addEdge(6, 2);
+		t.addEdge(6, 0);
+		t.addEdge(6, 4);
+		t.addEdge(4, 5);
+		t.addEdge(5, 6);
+		t.addEdge(5, 0);
+		t.addEdge(3, 4);
+		t.addEdge(3, 7);
+		t.addEdge(7, 3);
+		t.addEdge(7, 5);
+
+		ParallelSCC scc = new ParallelSCC(t, 4);
+		System.out.println(Arrays.toString(scc.compute()));
+		System.out.println(scc.componentCount() + " components, same as Tarjan " + scc.verify());
+		// Example Output
+		/*
+		[0, 0, 0, 1, 2, 2, 2, 1]
+		3 components, same as Tarjan true
+		*/
+	}
+}
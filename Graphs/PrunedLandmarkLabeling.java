@@ -0,0 +1,263 @@
+/**
+ * Implementation of Pruned Landmark Labeling, a distance oracle for undirected graphs with
+ * equal edge weights. Every vertex v gets a label, a list of (hub, d(hub, v)) pairs, such that
+ * every pair of connected vertices shares a hub on one of their shortest paths (a 2-hop cover).
+ * The distance from s to t is then the smallest d(hub, s) + d(hub, t) over the hubs the two
+ * labels have in common, found by merging the two labels without searching the graph.
+ *
+ * Labels are built by a Breadth First Search from every vertex in order of decreasing degree.
+ * A search stops at any vertex whose distance the labels built so far already answer, so the
+ * searches from later, less central vertices only visit a small part of the graph. Hubs are
+ * stored by their rank in that order, which keeps every label sorted as it is built.
+ *
+ * Time Complexity: O(V * (V + E) * L) preprocessing worst case, O(L) per query, where L is the
+ * size of the largest label
+ */
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class PrunedLandmarkLabeling {
+	private static final int MAGIC = 0x504c4c31; // "PLL1"
+	private static final int INF = Integer.MAX_VALUE;
+
+	private int n;
+	private int[] order; // order[r] = vertex of rank r
+	private int[] labelOffsets; // the label of v is [labelOffsets[v], labelOffsets[v + 1])
+	private int[] hubs; // hub ranks, increasing within each label
+	private int[] dists; // dists[i] = distance from hub hubs[i] to the labelled vertex
+
+	private PrunedLandmarkLabeling(int n, int size) {
+		this.n = n;
+		order = new int[n];
+		labelOffsets = new int[n + 1];
+		hubs = new int[size];
+		dists = new int[size];
+	}
+
+	/*
+	Builds the labels with a pruned Breadth First Search from every vertex.
+	@param sp, the graph
+	@output the distance oracle for the graph.
+	*/
+	public static PrunedLandmarkLabeling build(ShortestPath sp) {
+		CSRGraph g = sp.freeze();
+		int n = g.vertexCount();
+
+		// rank vertices by decreasing degree, high degree vertices cover the most paths
+		Integer[] byDegree = new Integer[n];
+		for (int v = 0; v < n; v++) {
+			byDegree[v] = v;
+		}
+		Arrays.sort(byDegree, (a, b) -> g.degree(a) != g.degree(b)
+				? Integer.compare(g.degree(b), g.degree(a)) : Integer.compare(a, b));
+
+		// labels under construction, one growable pair of arrays per vertex
+		int[][] labelHubs = new int[n][];
+		int[][] labelDists = new int[n][];
+		int[] labelSize = new int[n];
+		for (int v = 0; v < n; v++) {
+			labelHubs[v] = new int[4];
+			labelDists[v] = new int[4];
+		}
+
+		int[] rootDist = new int[n]; // rootDist[h] = d(hub h, root) for the hubs of the root
+		int[] distance = new int[n];
+		int[] queue = new int[n];
+		Arrays.fill(rootDist, INF);
+		Arrays.fill(distance, INF);
+
+		for (int r = 0; r < n; r++) {
+			int root = byDegree[r];
+			for (int i = 0; i < labelSize[root]; i++) {
+				rootDist[labelHubs[root][i]] = labelDists[root][i];
+			}
+
+			int head = 0, tail = 0;
+			queue[tail++] = root;
+			distance[root] = 0;
+			while (head < tail) {
+				int u = queue[head++];
+				int d = distance[u];
+				if (covered(rootDist, labelHubs[u], labelDists[u], labelSize[u], d)) {
+					continue;
+				}
+				if (labelSize[u] == labelHubs[u].length) {
+					labelHubs[u] = Arrays.copyOf(labelHubs[u], labelSize[u] * 2);
+					labelDists[u] = Arrays.copyOf(labelDists[u], labelSize[u] * 2);
+				}
+				labelHubs[u][labelSize[u]] = r;
+				labelDists[u][labelSize[u]++] = d;
+
+				for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+					int v = g.targets[e];
+					if (distance[v] == INF) {
+						distance[v] = d + 1;
+						queue[tail++] = v;
+					}
+				}
+			}
+
+			for (int i = 0; i < tail; i++) {
+				distance[queue[i]] = INF;
+			}
+			for (int i = 0; i < labelSize[root]; i++) {
+				rootDist[labelHubs[root][i]] = INF;
+			}
+		}
+
+		int size = 0;
+		for (int v = 0; v < n; v++) {
+			size += labelSize[v];
+		}
+		PrunedLandmarkLabeling pll = new PrunedLandmarkLabeling(n, size);
+		for (int r = 0; r < n; r++) {
+			pll.order[r] = byDegree[r];
+		}
+		for (int v = 0; v < n; v++) {
+			int start = pll.labelOffsets[v];
+			System.arraycopy(labelHubs[v], 0, pll.hubs, start, labelSize[v]);
+			System.arraycopy(labelDists[v], 0, pll.dists, start, labelSize[v]);
+			pll.labelOffsets[v + 1] = start + labelSize[v];
+		}
+		return pll;
+	}
+
+	/*
+	@param rootDist, distances from the hubs of the root, INF for other hubs
+	@param d, the distance from the root found by the search
+	@output true if the current labels already give a distance of at most d.
+	*/
+	private static boolean covered(int[] rootDist, int[] labelHubs, int[] labelDists, int size, int d) {
+		for (int i = 0; i < size; i++) {
+			int h = rootDist[labelHubs[i]];
+			if (h != INF && h + labelDists[i] <= d) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	Merges the labels of s and t.
+	@param s, vertex
+	@param t, vertex
+	@output the number of edges on a shortest path from s to t, or -1 if t is unreachable.
+	*/
+	public int distance(int s, int t) {
+		int i = labelOffsets[s], iEnd = labelOffsets[s + 1];
+		int j = labelOffsets[t], jEnd = labelOffsets[t + 1];
+		int best = INF;
+		while (i < iEnd && j < jEnd) {
+			int a = hubs[i], b = hubs[j];
+			if (a == b) {
+				best = Math.min(best, dists[i++] + dists[j++]);
+			} else if (a < b) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+		return best == INF ? -1 : best;
+	}
+
+	/* @output the vertices in the order their searches ran, most central first. */
+	public int[] getOrder() {
+		return order;
+	}
+
+	/* @output the number of (hub, distance) pairs over all labels. */
+	public int labelSize() {
+		return hubs.length;
+	}
+
+	/*
+	Writes the labels to a binary file.
+	@param path, file path
+	*/
+	public void save(String path) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(n);
+			out.writeInt(hubs.length);
+			for (int r = 0; r < n; r++) {
+				out.writeInt(order[r]);
+			}
+			for (int v = 0; v <= n; v++) {
+				out.writeInt(labelOffsets[v]);
+			}
+			for (int i = 0; i < hubs.length; i++) {
+				out.writeInt(hubs[i]);
+			}
+			for (int i = 0; i < dists.length; i++) {
+				out.writeInt(dists[i]);
+			}
+		}
+	}
+
+	/*
+	Reads labels written by save.
+	@param path, file path
+	@output the distance oracle.
+	*/
+	public static PrunedLandmarkLabeling load(String path) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a pruned landmark labeling file: " + path);
+			}
+			int n = in.readInt();
+			int size = in.readInt();
+			PrunedLandmarkLabeling pll = new PrunedLandmarkLabeling(n, size);
+			for (int r = 0; r < n; r++) {
+				pll.order[r] = in.readInt();
+			}
+			for (int v = 0; v <= n; v++) {
+				pll.labelOffsets[v] = in.readInt();
+			}
+			for (int i = 0; i < size; i++) {
+				pll.hubs[i] = in.readInt();
+			}
+			for (int i = 0; i < size; i++) {
+				pll.dists[i] = in.readInt();
+			}
+			return pll;
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		ShortestPath sp = new ShortestPath(10);
+		sp.addEdge(1, 2);
+		sp.addEdge(2, 8);
+		sp.addEdge(2, 4);
+		sp.addEdge(2, 6);
+		sp.addEdge(8, 7);
+		sp.addEdge(6, 5);
+		sp.addEdge(1, 3);
+		sp.addEdge(3, 4);
+		sp.addEdge(4, 5);
+
+		PrunedLandmarkLabeling pll = PrunedLandmarkLabeling.build(sp);
+		File file = File.createTempFile("labels", ".pll");
+		pll.save(file.getPath());
+		PrunedLandmarkLabeling loaded = PrunedLandmarkLabeling.load(file.getPath());
+		file.delete();
+
+		System.out.println("1 -> 6 " + loaded.distance(1, 6));
+		System.out.println("5 -> 7 " + loaded.distance(5, 7));
+		System.out.println("9 -> 10 " + loaded.distance(9, 10));
+		System.out.println("labels " + loaded.labelSize());
+		// Example Output
+		/*
+		1 -> 6 2
+		5 -> 7 4
+		9 -> 10 -1
+		labels 23
+		*/
+	}
+}
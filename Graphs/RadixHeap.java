@@ -0,0 +1,137 @@
+/**
+ * Implementation of a radix heap, a monotone priority queue for Dijkstra's Algorithm on graphs
+ * with non-negative integer edge weights. Entries are kept in buckets by the highest bit in
+ * which their priority differs from the last priority removed, so bucket 0 holds entries equal
+ * to it and bucket i holds entries that first differ in bit i - 1. When bucket 0 runs out, the
+ * lowest non-empty bucket is emptied into the lower buckets around its minimum. Each entry can
+ * only move down, so it is moved at most 64 times in total. A key whose distance is lowered
+ * is pushed again and its old entry is left behind to be skipped by the caller.
+ *
+ * Time Complexity: O(1) push, amortized O(log(C)) pollMin, O(E + V * log(C)) per search
+ */
+import java.util.Arrays;
+
+public class RadixHeap implements IntPriorityQueue {
+
+	private static final int BUCKETS = 65;
+
+	private int[][] keys;
+	private long[][] priorities;
+	private int[] bucketSize;
+	private int size;
+	private long last; // last priority removed
+
+	public RadixHeap() {
+		keys = new int[BUCKETS][];
+		priorities = new long[BUCKETS][];
+		bucketSize = new int[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			keys[i] = new int[4];
+			priorities[i] = new long[4];
+		}
+	}
+
+	/*
+	Adds the key with priority p. p must not be smaller than the last removed priority.
+	@param key, key
+	@param p, priority
+	*/
+	public void push(int key, long p) {
+		add(bucket(p), key, p);
+		size++;
+	}
+
+	public int pollMin() {
+		if (bucketSize[0] == 0) {
+			refill();
+		}
+		size--;
+		return keys[0][--bucketSize[0]];
+	}
+
+	/*
+	@output the priority of the entry pollMin would return. The queue must not be empty.
+	*/
+	public long minPriority() {
+		if (bucketSize[0] == 0) {
+			refill();
+		}
+		return last;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		if (size > 0) {
+			Arrays.fill(bucketSize, 0);
+			size = 0;
+		}
+		last = 0;
+	}
+
+	/*
+	@param p, priority
+	@output the bucket that holds priority p relative to the last removed priority.
+	*/
+	private int bucket(long p) {
+		return p == last ? 0 : 64 - Long.numberOfLeadingZeros(p ^ last);
+	}
+
+	/*
+	Empties the lowest non-empty bucket into the buckets below it, after moving last up to the
+	bucket's smallest priority. Every entry lands in a strictly lower bucket.
+	*/
+	private void refill() {
+		int b = 1;
+		while (bucketSize[b] == 0) {
+			b++;
+		}
+		int[] bucketKeys = keys[b];
+		long[] bucketPriorities = priorities[b];
+		int count = bucketSize[b];
+		long min = bucketPriorities[0];
+		for (int i = 1; i < count; i++) {
+			min = Math.min(min, bucketPriorities[i]);
+		}
+		last = min;
+		bucketSize[b] = 0;
+		for (int i = 0; i < count; i++) {
+			add(bucket(bucketPriorities[i]), bucketKeys[i], bucketPriorities[i]);
+		}
+	}
+
+	private void add(int b, int key, long p) {
+		int n = bucketSize[b];
+		if (n == keys[b].length) {
+			keys[b] = Arrays.copyOf(keys[b], n * 2);
+			priorities[b] = Arrays.copyOf(priorities[b], n * 2);
+		}
+		keys[b][n] = key;
+		priorities[b][n] = p;
+		bucketSize[b] = n + 1;
+	}
+
+	public static void main(String[] args) {
+		RadixHeap q = new RadixHeap();
+		q.push(1, 0);
+		q.push(2, 900);
+		q.push(3, 17);
+		q.push(4, 5);
+		q.push(5, 17);
+
+		while (!q.isEmpty()) {
+			long p = q.minPriority();
+			System.out.println(q.pollMin() + " " + p);
+		}
+		// Example Output
+		/*
+		1 0
+		4 5
+		5 17
+		3 17
+		2 900
+		*/
+	}
+}
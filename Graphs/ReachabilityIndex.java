@@ -0,0 +1,351 @@
+/**
+ * Reachability index for a directed graph, answering "can u reach v?" without searching the
+ * whole graph. Vertices in the same strongly connected component reach each other, so the
+ * index is built over the condensation from Tarjan's Algorithm. Its component ids are a reverse
+ * topological order, so u can only reach v when comp(u) >= comp(v).
+ *
+ * A small condensation keeps its full transitive closure, one bitset row per component, built
+ * in increasing id order by OR-ing the rows of the successors. Queries are a single bit test.
+ *
+ * A large condensation, whose closure would not fit, gets GRAIL interval labels instead: each
+ * of several randomized depth first traversals gives every component an interval
+ * [low, post], where post is its post-order number and low the smallest post-order number
+ * below it. If u reaches v, the interval of v lies inside the interval of u, so a query whose
+ * intervals do not nest is answered false at once. Otherwise a depth first search from u runs,
+ * pruned to the components whose intervals contain the interval of v.
+ *
+ * Time Complexity: O(C^2 / 64 + C * D / 64) preprocessing and O(1) per query with the closure,
+ * O(T * (C + D)) preprocessing and O(T) per query for most queries with the labels, where C
+ * and D are the vertices and edges of the condensation and T the number of traversals
+ */
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+public class ReachabilityIndex {
+	private static final int MAGIC = 0x52434831; // "RCH1"
+	private static final int CLOSURE_LIMIT = 1 << 13; // largest condensation kept as a closure, 8 MB
+	private static final int TRAVERSALS = 5;
+	private static final long SEED = 0x5eed;
+
+	private int[] comp; // comp[v] = component id of v
+	private int count;
+
+	// transitive closure, null when the labels are used
+	private long[] closure; // row c is closure[c * words .. (c + 1) * words)
+	private int words;
+
+	// interval labels, null when the closure is used
+	private int traversals;
+	private int[] low, post; // the interval of c in traversal i is at c * traversals + i
+	private CSRGraph dag;
+
+	// pruned search state, a component is visited when its stamp equals epoch
+	private int[] visited;
+	private int epoch;
+	private IntStack stack;
+
+	private ReachabilityIndex(int[] comp, int count) {
+		this.comp = comp;
+		this.count = count;
+	}
+
+	/*
+	Builds the index, as a transitive closure when the condensation is small enough.
+	@param tarjan, the directed graph
+	@output the reachability index for the graph.
+	*/
+	public static ReachabilityIndex build(Tarjan tarjan) {
+		return build(tarjan, CLOSURE_LIMIT);
+	}
+
+	/*
+	@param tarjan, the directed graph
+	@param closureLimit, the largest number of components to keep a transitive closure for
+	@output the reachability index for the graph.
+	*/
+	public static ReachabilityIndex build(Tarjan tarjan, int closureLimit) {
+		ReachabilityIndex index = new ReachabilityIndex(tarjan.components(), tarjan.componentCount());
+		CSRGraph dag = tarjan.condensation();
+		if (index.count <= closureLimit) {
+			index.buildClosure(dag);
+		} else {
+			index.buildLabels(dag, TRAVERSALS, new Random(SEED));
+		}
+		return index;
+	}
+
+	/*
+	Every successor of c has a lower id, so its row is complete before the row of c is built.
+	*/
+	private void buildClosure(CSRGraph dag) {
+		words = (count + 63) >>> 6;
+		closure = new long[count * words];
+		for (int c = 0; c < count; c++) {
+			int row = c * words;
+			closure[row + (c >>> 6)] |= 1L << c;
+			for (int e = dag.offsets[c]; e < dag.offsets[c + 1]; e++) {
+				int s = dag.targets[e] * words;
+				for (int w = 0; w < words; w++) {
+					closure[row + w] |= closure[s + w];
+				}
+			}
+		}
+	}
+
+	/*
+	Runs the randomized traversals. Each starts from the sources of the DAG in a random order
+	and visits the successors of a component from a random offset, so the traversals differ.
+	*/
+	private void buildLabels(CSRGraph dag, int traversals, Random random) {
+		this.dag = dag;
+		this.traversals = traversals;
+		low = new int[count * traversals];
+		post = new int[count * traversals];
+		visited = new int[count];
+		stack = new IntStack();
+
+		int[] indegree = new int[count];
+		for (int e = 0; e < dag.edgeCount(); e++) {
+			indegree[dag.targets[e]]++;
+		}
+		IntArrayList sources = new IntArrayList();
+		for (int c = 0; c < count; c++) {
+			if (indegree[c] == 0) {
+				sources.add(c);
+			}
+		}
+		int[] roots = sources.toArray();
+		int[] start = new int[count]; // start[c] = offset of the first successor visited
+		int[] cursor = new int[count]; // cursor[c] = number of successors of c visited so far
+		for (int i = 0; i < traversals; i++) {
+			for (int r = roots.length - 1; r > 0; r--) {
+				int j = random.nextInt(r + 1);
+				int tmp = roots[r];
+				roots[r] = roots[j];
+				roots[j] = tmp;
+			}
+			epoch++;
+			int clock = 0;
+			for (int root : roots) {
+				visit(root, random, start, cursor);
+				while (!stack.isEmpty()) {
+					int c = stack.peek();
+					int degree = dag.degree(c);
+					if (cursor[c] < degree) {
+						int e = dag.offsets[c] + (start[c] + cursor[c]++) % degree;
+						int s = dag.targets[e];
+						if (visited[s] != epoch) {
+							visit(s, random, start, cursor);
+						}
+						continue;
+					}
+					stack.pop();
+					int label = c * traversals + i;
+					post[label] = clock++;
+					low[label] = post[label];
+					for (int e = dag.offsets[c]; e < dag.offsets[c + 1]; e++) {
+						low[label] = Math.min(low[label], low[dag.targets[e] * traversals + i]);
+					}
+				}
+			}
+		}
+	}
+
+	private void visit(int c, Random random, int[] start, int[] cursor) {
+		visited[c] = epoch;
+		int degree = dag.degree(c);
+		start[c] = degree == 0 ? 0 : random.nextInt(degree);
+		cursor[c] = 0;
+		stack.push(c);
+	}
+
+	/*
+	@output true if the interval of component b lies inside the interval of component a in
+	every traversal, which is necessary for a to reach b.
+	*/
+	private boolean contains(int a, int b) {
+		int la = a * traversals, lb = b * traversals;
+		for (int i = 0; i < traversals; i++) {
+			if (low[lb + i] < low[la + i] || post[lb + i] > post[la + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	Answers with the closure, or with the labels and a pruned search when they cannot decide.
+	The search reuses the index's state, so queries on labels must not run concurrently.
+	@param u, vertex
+	@param v, vertex
+	@output true if there is a directed path from u to v.
+	*/
+	public boolean reachable(int u, int v) {
+		int a = comp[u], b = comp[v];
+		if (a == b) {
+			return true;
+		}
+		if (a < b) {
+			return false;
+		}
+		if (closure != null) {
+			return (closure[a * words + (b >>> 6)] & (1L << b)) != 0;
+		}
+		if (!contains(a, b)) {
+			return false;
+		}
+
+		if (++epoch == Integer.MAX_VALUE) {
+			Arrays.fill(visited, 0);
+			epoch = 1;
+		}
+		stack.clear();
+		visited[a] = epoch;
+		stack.push(a);
+		while (!stack.isEmpty()) {
+			int c = stack.pop();
+			for (int e = dag.offsets[c]; e < dag.offsets[c + 1]; e++) {
+				int s = dag.targets[e];
+				if (s == b) {
+					return true;
+				}
+				if (s > b && visited[s] != epoch && contains(s, b)) {
+					visited[s] = epoch;
+					stack.push(s);
+				}
+			}
+		}
+		return false;
+	}
+
+	/* @output true if the index keeps the full transitive closure. */
+	public boolean isClosure() {
+		return closure != null;
+	}
+
+	/*
+	Writes the index to a binary file.
+	@param path, file path
+	*/
+	public void save(String path) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(comp.length);
+			out.writeInt(count);
+			for (int v = 0; v < comp.length; v++) {
+				out.writeInt(comp[v]);
+			}
+			out.writeBoolean(closure != null);
+			if (closure != null) {
+				for (int i = 0; i < closure.length; i++) {
+					out.writeLong(closure[i]);
+				}
+				return;
+			}
+			out.writeInt(traversals);
+			for (int i = 0; i < low.length; i++) {
+				out.writeInt(low[i]);
+				out.writeInt(post[i]);
+			}
+			out.writeInt(dag.edgeCount());
+			for (int c = 0; c <= count; c++) {
+				out.writeInt(dag.offsets[c]);
+			}
+			for (int e = 0; e < dag.edgeCount(); e++) {
+				out.writeInt(dag.targets[e]);
+			}
+		}
+	}
+
+	/*
+	Reads an index written by save.
+	@param path, file path
+	@output the reachability index.
+	*/
+	public static ReachabilityIndex load(String path) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a reachability index file: " + path);
+			}
+			int[] comp = new int[in.readInt()];
+			int count = in.readInt();
+			for (int v = 0; v < comp.length; v++) {
+				comp[v] = in.readInt();
+			}
+			ReachabilityIndex index = new ReachabilityIndex(comp, count);
+			if (in.readBoolean()) {
+				index.words = (count + 63) >>> 6;
+				index.closure = new long[count * index.words];
+				for (int i = 0; i < index.closure.length; i++) {
+					index.closure[i] = in.readLong();
+				}
+				return index;
+			}
+			index.traversals = in.readInt();
+			index.low = new int[count * index.traversals];
+			index.post = new int[count * index.traversals];
+			for (int i = 0; i < index.low.length; i++) {
+				index.low[i] = in.readInt();
+				index.post[i] = in.readInt();
+			}
+			int[] offsets = new int[count + 1];
+			int[] targets = new int[in.readInt()];
+			for (int c = 0; c <= count; c++) {
+				offsets[c] = in.readInt();
+			}
+			for (int e = 0; e < targets.length; e++) {
+				targets[e] = in.readInt();
+			}
+			index.dag = new CSRGraph(offsets, targets, null);
+			index.visited = new int[count];
+			index.stack = new IntStack();
+			return index;
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		Tarjan t = new Tarjan(10);
+		t.addEdge(0, 1);
+		t.addEdge(1, 2);
+		t.addEdge(2, 0);
+		t.addEdge(6, 2);
+		t.addEdge(6, 4);
+		t.addEdge(4, 5);
+		t.addEdge(5, 6);
+		t.addEdge(3, 4);
+		t.addEdge(3, 7);
+		t.addEdge(7, 3);
+		t.addEdge(8, 9);
+
+		ReachabilityIndex closure = ReachabilityIndex.build(t);
+		ReachabilityIndex labels = ReachabilityIndex.build(t, 0);
+		File file = File.createTempFile("reach", ".idx");
+		labels.save(file.getPath());
+		ReachabilityIndex loaded = ReachabilityIndex.load(file.getPath());
+		file.delete();
+
+		int[][] queries = { { 7, 1 }, { 1, 7 }, { 5, 4 }, { 0, 9 }, { 8, 9 } };
+		for (int[] q : queries) {
+			System.out.println(q[0] + " -> " + q[1] + " " + closure.reachable(q[0], q[1])
+					+ " " + loaded.reachable(q[0], q[1]));
+		}
+		System.out.println("closure " + closure.isClosure() + ", labels " + !loaded.isClosure());
+		// Example Output
+		/*
+		7 -> 1 true true
+		1 -> 7 false false
+		5 -> 4 true true
+		0 -> 9 false false
+		8 -> 9 true true
+		closure true, labels true
+		*/
+	}
+}
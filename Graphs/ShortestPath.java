@@ -1,9 +1,11 @@
 /**
  * Implementation of the shortest path algorithm on a graph with undirected edges
- * and equal edge weight values.
- * 
+ * and equal edge weight values. The search is an iterative Breadth First Search over a
+ * flat array queue that stops as soon as the target is reached, or a bidirectional
+ * Breadth First Search that grows whichever of the two frontiers is smaller.
+ *
  * Time Complexity: O(V + E)
- * 
+ *
  * @author Khadijah Flowers, khadijah20flowers@gmail.com
  */
 import java.util.*;
@@ -11,41 +13,36 @@ import java.util.*;
 public class ShortestPath {
 
 	private int[] nodes;
-	private HashMap<Integer, ArrayList<Integer>> edges;
-	private boolean[] visited;
-	private int[] edgeTo;
-	private int[] paths;
+	private AdjacencyBuilder edges;
+
+	// search state, index 0 is the search from s and index 1 the search from t
+	private int[][] edgeTo;
+	private int[][] paths;
+	private int[][] seen; // seen[d][v] == epoch when v was reached in the current search
+	private int[][] queue;
+	private int epoch;
 
 	/*
  	@param n, size of the graph, not including 0
 	*/
 	public ShortestPath(int n) {
-		visited = new boolean[n + 1];
-		edgeTo = new int[n + 1];
-		paths = new int[n + 1];
+		edgeTo = new int[2][n + 1];
+		paths = new int[2][n + 1];
+		seen = new int[2][n + 1];
+		queue = new int[2][n + 1];
 		nodes = new int[n + 1];
-		edges = new HashMap<>();
-		createGraph();
+		edges = new AdjacencyBuilder(n + 1, false);
 	}
 
 	/*
- 	Create the adjacency lists for the n vertices in the graph.
- 	*/
-	private void createGraph() {
-		for (int i = 1; i < nodes.length; i++) {
-			edges.put(i, new ArrayList<>());
-		}
-	}
-
-	/*
- 	Resets the visited, paths, and edgeTo arrays before computing the shortest path for
-  	a new source node.
+ 	Starts a new search. Entries from earlier searches become stale without being cleared.
  	*/
 	private void reset() {
-		for (int i = 0; i < visited.length; i++) {
-			visited[i] = false;
-			paths[i] = Integer.MAX_VALUE;
-			edgeTo[i] = 0;
+		epoch++;
+		if (epoch == Integer.MAX_VALUE) {
+			Arrays.fill(seen[0], 0);
+			Arrays.fill(seen[1], 0);
+			epoch = 1;
 		}
 	}
 
@@ -55,61 +52,247 @@ public class ShortestPath {
   	@param b, vertex
 	*/
 	public void addEdge(int a, int b) {
-		ArrayList<Integer> a_edges, b_edges;
-		a_edges = edges.get(a);
-		b_edges = edges.get(b);
-		a_edges.add(b);
-		b_edges.add(a);
+		edges.addEdge(a, b);
+		edges.addEdge(b, a);
+	}
+
+	/*
+ 	Compiles the adjacency lists into a CSR snapshot. Vertex 0 has no edges.
+ 	@output the compiled graph.
+ 	*/
+	CSRGraph freeze() {
+		return edges.toCSR();
 	}
 
 	/*
- 	Computes the shortest path from s to t in an undirected, equally weighted graph.
+ 	Computes the shortest path from s to t in an undirected, equally weighted graph
+  	with a Breadth First Search that stops when t is reached.
  	@param s, start node
-  	@para, t, target node
+  	@param t, target node
+  	@output the path from s to t.
  	*/
-	public void shortestPath(int s, int t) {
+	public Path shortestPath(int s, int t) {
+		CSRGraph g = freeze();
 		reset();
-		findPath(s, t, 0);
+		int[] q = queue[0];
+		int head = 0, tail = 0;
+		visit(0, s, s, 0);
+		q[tail++] = s;
+
+		while (head < tail && seen[0][t] != epoch) {
+			int u = q[head++];
+			int pl = paths[0][u] + 1;
+			for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+				int v = g.targets[e];
+				if (seen[0][v] != epoch) {
+					visit(0, v, u, pl);
+					if (v == t) {
+						break;
+					}
+					q[tail++] = v;
+				}
+			}
+		}
+		return seen[0][t] == epoch ? buildPath(s, t, t) : new Path(-1, new int[0]);
 	}
 
 	/*
- 	Computes the shortest path from s to t. Updates the shortest path if pl
-  	is a better distance than the current value in the distance array.
- 	@param pl, current distance
+ 	Computes the shortest path from s to t with a bidirectional Breadth First Search.
+  	One search grows from s and one from t, and each step expands a whole level of whichever
+   	frontier has fewer vertices. The first level that reaches a vertex seen by the other
+   	search contains the meeting point of a shortest path.
  	@param s, start node
   	@param t, target node
+  	@output the path from s to t.
  	*/
-	private void findPath(int s, int t, int pl) {
+	public Path bidirectionalShortestPath(int s, int t) {
+		CSRGraph g = freeze();
+		reset();
 		if (s == t) {
-			return;
-		} else if (visited[s]) {
-			return;
-		} else {
-			visited[s] = true;
-			paths[s] = Math.min(pl, paths[s]);
-			pl++;
-			ArrayList<Integer> ed = edges.get(s);
-			for (int i = 0; i < ed.size(); i++) {
-				if (!visited[ed.get(i)]) {
-					edgeTo[ed.get(i)] = s;
-					findPath(ed.get(i), t, pl);
+			visit(0, s, s, 0);
+			return buildPath(s, t, s);
+		}
+		int[] head = new int[2];
+		int[] tail = new int[2];
+		visit(0, s, s, 0);
+		visit(1, t, t, 0);
+		queue[0][tail[0]++] = s;
+		queue[1][tail[1]++] = t;
+
+		while (head[0] < tail[0] && head[1] < tail[1]) {
+			int d = tail[0] - head[0] <= tail[1] - head[1] ? 0 : 1;
+			int other = 1 - d;
+			int[] q = queue[d];
+			int levelEnd = tail[d];
+			int meet = -1;
+			int best = Integer.MAX_VALUE;
+			while (head[d] < levelEnd) {
+				int u = q[head[d]++];
+				int pl = paths[d][u] + 1;
+				for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+					int v = g.targets[e];
+					if (seen[d][v] == epoch) {
+						continue;
+					}
+					visit(d, v, u, pl);
+					q[tail[d]++] = v;
+					if (seen[other][v] == epoch && pl + paths[other][v] < best) {
+						best = pl + paths[other][v];
+						meet = v;
+					}
 				}
-				if (paths[ed.get(i)] > pl) {
-					paths[ed.get(i)] = pl;
-					edgeTo[ed.get(i)] = s;
+			}
+			if (meet != -1) {
+				return buildPath(s, t, meet);
+			}
+		}
+		return new Path(-1, new int[0]);
+	}
+
+	/*
+ 	Computes the distances from many sources at once with a Multi-Source Breadth First
+  	Search (MS-BFS). Up to 64 sources share one traversal: every vertex keeps a bitmask of
+   	the sources that have seen it and of the sources whose frontier it is on, and one scan
+   	of a vertex's edges advances all of those sources together with a few bitwise operations.
+   	Sources are processed in batches of 64, so the edges are scanned up to 64 times less
+   	often than with one Breadth First Search per source.
+ 	@param sources, start nodes
+  	@param visitor, receives the distance from sources[i] to every vertex it reaches
+ 	*/
+	public void multiSourceBFS(int[] sources, DistanceVisitor visitor) {
+		CSRGraph g = freeze();
+		int n = g.vertexCount();
+		long[] seenBy = new long[n];
+		long[] visit = new long[n];
+		long[] visitNext = new long[n];
+
+		for (int base = 0; base < sources.length; base += 64) {
+			int batch = Math.min(64, sources.length - base);
+			Arrays.fill(seenBy, 0);
+			Arrays.fill(visit, 0);
+			for (int i = 0; i < batch; i++) {
+				int src = sources[base + i];
+				seenBy[src] |= 1L << i;
+				visit[src] |= 1L << i;
+				visitor.visit(base + i, src, 0);
+			}
+
+			boolean active = true;
+			for (int level = 1; active; level++) {
+				active = false;
+				Arrays.fill(visitNext, 0);
+				for (int u = 0; u < n; u++) {
+					long frontier = visit[u];
+					if (frontier == 0) {
+						continue;
+					}
+					for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+						int v = g.targets[e];
+						long discovered = frontier & ~seenBy[v];
+						if (discovered == 0) {
+							continue;
+						}
+						seenBy[v] |= discovered;
+						visitNext[v] |= discovered;
+						active = true;
+						while (discovered != 0) {
+							int bit = Long.numberOfTrailingZeros(discovered);
+							visitor.visit(base + bit, v, level);
+							discovered &= discovered - 1;
+						}
+					}
 				}
+				long[] tmp = visit;
+				visit = visitNext;
+				visitNext = tmp;
 			}
 		}
 	}
 
+	/*
+ 	Computes the distances from every source with multiSourceBFS.
+ 	@param sources, start nodes
+  	@output distances[i][v] is the distance from sources[i] to v, or -1 if v is unreachable.
+ 	*/
+	public int[][] multiSourceDistances(int[] sources) {
+		int[][] distances = new int[sources.length][nodes.length];
+		for (int[] row : distances) {
+			Arrays.fill(row, -1);
+		}
+		multiSourceBFS(sources, (i, vertex, distance) -> distances[i][vertex] = distance);
+		return distances;
+	}
+
+	private void visit(int d, int v, int from, int pl) {
+		seen[d][v] = epoch;
+		edgeTo[d][v] = from;
+		paths[d][v] = pl;
+	}
+
+	/*
+ 	Joins the path from s to the meeting vertex found by the search from s with the path
+  	from the meeting vertex to t found by the search from t.
+ 	@output the path from s to t.
+ 	*/
+	private Path buildPath(int s, int t, int meet) {
+		int forward = paths[0][meet];
+		int backward = meet == t ? 0 : paths[1][meet];
+		int[] vertices = new int[forward + backward + 1];
+		int v = meet;
+		for (int i = forward; i >= 0; i--) {
+			vertices[i] = v;
+			v = edgeTo[0][v];
+		}
+		v = meet;
+		for (int i = forward + 1; i < vertices.length; i++) {
+			v = edgeTo[1][v];
+			vertices[i] = v;
+		}
+		return new Path(forward + backward, vertices);
+	}
+
 	/* Debugging Function */
 	public void print_edges() {
-		for (int i = 0; i < edgeTo.length; i++) {
-			System.out.println(i + " " + edgeTo[i] + " " + paths[i]);
+		for (int i = 0; i < edgeTo[0].length; i++) {
+			if (seen[0][i] == epoch) {
+				System.out.println(i + " " + edgeTo[0][i] + " " + paths[0][i]);
+			} else {
+				System.out.println(i + " " + 0 + " " + Integer.MAX_VALUE);
+			}
 		}
 		System.out.println();
 	}
 
+	/* Receives the distance from sources[source] to a vertex found by a multi-source search. */
+	public interface DistanceVisitor {
+		void visit(int source, int vertex, int distance);
+	}
+
+	/* The result of a shortest path search. */
+	public static class Path {
+		private int length;
+		private int[] vertices;
+
+		public Path(int length, int[] vertices) {
+			this.length = length;
+			this.vertices = vertices;
+		}
+
+		/* @output the number of edges on the path, or -1 if the target is unreachable. */
+		public int getLength() {
+			return length;
+		}
+
+		/* @output the vertices from s to t, empty if the target is unreachable. */
+		public int[] getVertices() {
+			return vertices;
+		}
+
+		public String toString() {
+			return length + " " + Arrays.toString(vertices);
+		}
+	}
+
 	public static void main(String[] args) {
 		ShortestPath sp = new ShortestPath(10);
 		sp.addEdge(1, 2);
@@ -122,15 +305,34 @@ public class ShortestPath {
 		sp.addEdge(3, 4);
 		sp.addEdge(4, 5);
 
-		sp.shortestPath(1, 6);
+		System.out.println(sp.shortestPath(1, 6));
 		sp.print_edges();
 
-		sp.shortestPath(9, 10);
+		System.out.println(sp.shortestPath(9, 10));
 		sp.print_edges();
 
-		sp.shortestPath(4, 8);
+		System.out.println(sp.shortestPath(4, 8));
 		sp.print_edges();
 
+		System.out.println(sp.bidirectionalShortestPath(1, 6));
+		System.out.println(sp.bidirectionalShortestPath(9, 10));
+		System.out.println(sp.bidirectionalShortestPath(5, 7));
 
+		int[][] d = sp.multiSourceDistances(new int[] {1, 5, 9});
+		for (int i = 0; i < d.length; i++) {
+			System.out.println(Arrays.toString(d[i]));
+		}
+		// Example Output (paths only)
+		/*
+		2 [1, 2, 6]
+		-1 []
+		2 [4, 2, 8]
+		2 [1, 2, 6]
+		-1 []
+		4 [5, 4, 2, 8, 7]
+		[-1, 0, 1, 1, 2, 3, 2, 3, 2, -1, -1]
+		[-1, 3, 2, 2, 1, 0, 1, 4, 3, -1, -1]
+		[-1, -1, -1, -1, -1, -1, -1, -1, -1, 0, -1]
+		*/
 	}
 }
@@ -1,42 +1,36 @@
 /**
  * Implementation of the Tarjan Algorithm to find all strongly connected components
  * in a graph using DFS and the stack data structure.
+ *
+ * The search follows Pearce's space-efficient variant and runs without recursion: the DFS path
+ * is an explicit int stack with an edge cursor per frame, and a single rindex array holds both
+ * the discovery index of the active vertices and the component id of finished ones. Components
+ * are numbered in the order they are completed, which is a reverse topological order of the
+ * condensation: every edge between two components goes from a higher id to a lower one. One
+ * pass over the graph produces the component ids, and the condensation DAG is then compiled
+ * to CSR with duplicate edges removed.
  * 
  * Time Complexity: O(V + E)
  * 
  * @author Khadijah Flowers, khadijah20flowers@gmail.com
  */
-import java.util.HashMap;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Stack;
 
 public class Tarjan {
 	
-	private HashMap<Integer, ArrayList<Integer>> graph; // directed edge
-	private boolean[] stack;
-	private boolean[] visited;
-	private Stack<Integer> vertexStack;
+	private AdjacencyBuilder graph; // directed edge
 
-	private int[] ids, llv;
-	private int UID;
+	// results of the last search, null after the graph changes
+	private int[] component; // component[v] = id of the strongly connected component of v
+	private int[] root; // root[c] = first vertex of component c reached by the search
+	private int count;
+	private CSRGraph condensation;
 
 	/*
  	@param n, size of the graph.
   	*/
 	public Tarjan(int n) {
-		graph = new HashMap<>();
-		createGraph(n);
-	}
-
-	/*
-	Generates the adjacency lists for n vertices in the graph.
-	@param n
-	*/
-	private void createGraph(int n) {
-		for (int i = 0; i < n; i++) {
-			graph.put(i, new ArrayList<>());
-		}
+		graph = new AdjacencyBuilder(n, false);
 	}
 
 	/*
@@ -45,89 +39,177 @@ public class Tarjan {
 	@param v, vertex
 	*/
 	public void addEdge(int u, int v) {
-		graph.get(u).add(v);
+		graph.addEdge(u, v);
+		component = null;
+		condensation = null;
+	}
+
+	/*
+	@output the compiled graph.
+	*/
+	CSRGraph freeze() {
+		return graph.toCSR();
 	}
 
 	/*
-	@output the low link values array for the graph
+	@output the low link vertex of every vertex: the first vertex of its strongly connected
+	component reached by the search. Two vertices share a value exactly when they are in the
+	same component.
 	*/
 	public int[] SCC() {
-		ids = new int[graph.size()];
-		llv = new int[graph.size()];
-		Arrays.fill(llv, Integer.MAX_VALUE);
-		visited = new boolean[graph.size()];
-		stack = new boolean[graph.size()];
-		UID = 0;
-
-		vertexStack = new Stack<>();
-
-		for (int i = 0; i < graph.size(); i++) {
-			if (!visited[i]) {
-				dfs(i);
-			}
+		int[] comp = components();
+		int[] llv = new int[comp.length];
+		for (int v = 0; v < comp.length; v++) {
+			llv[v] = root[comp[v]];
 		}
 		return llv;
 	}
 
 	/*
-	Runs an augmented version of DFS.
-	Assigns UIDs to each vertex and a Low Link value that is updated
-	either when one of it's neighbors returns from the DFS callback
-	(on the stack) with a lower link value OR when one of it's neighbors
-	that's been visited (still on the stack) has a lower UID value.
-	@param node, starting node to run DFS
+	@output component[v], the id of the strongly connected component of v. Ids run from 0 to
+	componentCount() - 1 in reverse topological order.
 	*/
-	private void dfs(int node) {
-		if (visited[node]) {
-			return;
-		} else {
-			visited[node] = true;
-			llv[node] = node;
-			ids[node] = UID;
-			UID++;
-			vertexStack.push(node);
-
-			ArrayList<Integer> edges = graph.get(node);
-			stack[node] = true;
-
-			for (int i = 0; i < edges.size(); i++) {
-				
-				int vertex = edges.get(i);
-				if (!visited[vertex]) {
-					dfs(vertex);
-					if (stack[vertex]) {
-						llv[node] = Math.min(llv[node], llv[vertex]);
-					}
-				} else {
-					// if this vertex has been visited already
-					// update the llv of the current node to the
-					// id of this vertex if it is smaller
-					if (stack[vertex]) {
-						llv[node] = Math.min(llv[node], ids[vertex]);
+	public int[] components() {
+		if (component == null) {
+			search();
+		}
+		return component;
+	}
+
+	/*
+	@output the number of strongly connected components.
+	*/
+	public int componentCount() {
+		components();
+		return count;
+	}
+
+	/*
+	Builds the condensation of the graph, with one vertex per component and an edge from
+	component a to component b when some edge of the graph goes from a to b.
+	@output the condensation DAG, every edge going from a higher id to a lower one.
+	*/
+	public CSRGraph condensation() {
+		if (condensation != null) {
+			return condensation;
+		}
+		CSRGraph g = graph.toCSR();
+		int[] comp = components();
+		int n = comp.length;
+
+		// group the vertices by component with a counting sort
+		int[] memberOffsets = new int[count + 1];
+		for (int v = 0; v < n; v++) {
+			memberOffsets[comp[v] + 1]++;
+		}
+		for (int c = 0; c < count; c++) {
+			memberOffsets[c + 1] += memberOffsets[c];
+		}
+		int[] members = new int[n];
+		int[] next = Arrays.copyOf(memberOffsets, count);
+		for (int v = 0; v < n; v++) {
+			members[next[comp[v]]++] = v;
+		}
+
+		// stamp[d] == c + 1 once the edge c -> d has been added
+		int[] stamp = new int[count];
+		int[] offsets = new int[count + 1];
+		IntArrayList targets = new IntArrayList();
+		for (int c = 0; c < count; c++) {
+			for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+				int u = members[i];
+				for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+					int d = comp[g.targets[e]];
+					if (d != c && stamp[d] != c + 1) {
+						stamp[d] = c + 1;
+						targets.add(d);
 					}
 				}
 			}
+			offsets[c + 1] = targets.size();
+		}
+		condensation = new CSRGraph(offsets, targets.toArray(), null);
+		return condensation;
+	}
+
+	/*
+	Runs Pearce's iterative version of Tarjan's Algorithm over the whole graph.
+	rindex[v] is 0 until v is reached, then the discovery index of v, lowered to the smallest
+	index v can reach while v is on the stack. When a root finishes, its component gets the
+	next id, counted down from n - 1 so that it is larger than every active index.
+	*/
+	private void search() {
+		CSRGraph g = graph.toCSR();
+		int n = g.vertexCount();
+		int[] rindex = new int[n];
+		boolean[] isRoot = new boolean[n];
+		int[] path = new int[n]; // the DFS path
+		int[] cursor = new int[n]; // cursor[i] = next edge of path[i]
+		int[] stack = new int[n]; // vertices waiting for their component
+		int top = 0;
+		int index = 1;
+		int c = n - 1;
+		root = new int[n];
+
+		for (int start = 0; start < n; start++) {
+			if (rindex[start] != 0) {
+				continue;
+			}
+			int depth = 0;
+			path[depth] = start;
+			cursor[depth++] = g.offsets[start];
+			rindex[start] = index++;
+			isRoot[start] = true;
 
-			// the llv(node) is also the smallest value that can be found in this SCC
-			if (ids[node] == llv[node]) {
-				for (int v = vertexStack.pop(); ; v = vertexStack.pop()) {
-					/*
-					update all of the nodes on the stack
-					with the low link value of the smallest
-					ID/LLV on the stack
-					!!! ONLY UPDATE llv if the vertex is ON the stack
-					*/
-					if (node == v && stack[v]) {
-						llv[v] = llv[node];
-						stack[v] = false;
-						break;
-					} else if (stack[v]) {
-						llv[v] = llv[node];
-						stack[v] = false;
+			while (depth > 0) {
+				int v = path[depth - 1];
+				int e = cursor[depth - 1];
+				if (e < g.offsets[v + 1]) {
+					cursor[depth - 1] = e + 1;
+					int w = g.targets[e];
+					if (rindex[w] == 0) {
+						path[depth] = w;
+						cursor[depth++] = g.offsets[w];
+						rindex[w] = index++;
+						isRoot[w] = true;
+					} else if (rindex[w] < rindex[v]) {
+						rindex[v] = rindex[w];
+						isRoot[v] = false;
+					}
+					continue;
+				}
+
+				depth--;
+				if (isRoot[v]) {
+					index--;
+					while (top > 0 && rindex[v] <= rindex[stack[top - 1]]) {
+						int w = stack[--top];
+						rindex[w] = c;
+						index--;
+					}
+					rindex[v] = c;
+					root[n - 1 - c] = v;
+					c--;
+				} else {
+					stack[top++] = v;
+				}
+				if (depth > 0) {
+					int u = path[depth - 1];
+					if (rindex[v] < rindex[u]) {
+						rindex[u] = rindex[v];
+						isRoot[u] = false;
 					}
 				}
 			}
 		}
+
+		// component ids count up from 0 in the order the components were completed
+		count = n - 1 - c;
+		for (int v = 0; v < n; v++) {
+			rindex[v] = n - 1 - rindex[v];
+		}
+		component = rindex;
+		root = Arrays.copyOf(root, count);
 	}
 
 	public static void main(String[] args) {
@@ -151,6 +233,14 @@ public class Tarjan {
 			System.out.println(i + " " + llv[i]);
 		}
 
+		System.out.println(t.componentCount() + " components " + Arrays.toString(t.components()));
+		CSRGraph dag = t.condensation();
+		for (int c = 0; c < dag.vertexCount(); c++) {
+			for (int e = dag.offsets[c]; e < dag.offsets[c + 1]; e++) {
+				System.out.println("component " + c + " -> " + dag.targets[e]);
+			}
+		}
+
 		// Example Output
 		/*
 		0 0
@@ -161,6 +251,9 @@ public class Tarjan {
 		5 4
 		6 4
 		7 3
+		3 components [0, 0, 0, 2, 1, 1, 1, 2]
+		component 1 -> 0
+		component 2 -> 1
 		*/
 	}
 }
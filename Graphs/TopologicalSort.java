@@ -10,7 +10,7 @@ import java.util.*;
 
 public class TopologicalSort {
 	
-	private HashMap<Integer, ArrayList<int[]>> graph;
+	private AdjacencyBuilder graph;
 	private boolean[] visited;
 
 	private int[] paths;
@@ -19,7 +19,7 @@ public class TopologicalSort {
  	@param n, size of the graph.
  	*/
 	public TopologicalSort(int n) {
-		graph = new HashMap<>();
+		graph = new AdjacencyBuilder(n + 1, true);
 		visited = new boolean[n + 1];
 
 		paths = new int[n + 1];
@@ -31,7 +31,6 @@ public class TopologicalSort {
 	*/
 	private void createGraph(int n) {
 		for (int i = 1; i < n + 1; i++) {
-			graph.put(i, new ArrayList<>());
 			paths[i] = Integer.MAX_VALUE;
 		}
 	}
@@ -43,8 +42,7 @@ public class TopologicalSort {
 	@param weight, the edge weigth between u and v
  	*/
 	public void addEdge(int u, int v, int weight) {
-		ArrayList<int[]> u_edges = graph.get(u);
-		u_edges.add(new int[] {v, weight});
+		graph.addEdge(u, v, weight);
 	}
 
 	/*
@@ -54,15 +52,15 @@ public class TopologicalSort {
  	*/
 	public int[] sssp(int start) {
 		// run topological sort
-		ArrayList<Integer> ts = topologicalSort();
+		int[] ts = topologicalSort();
 		reset();
 		paths[start] = 0;
 
-		for (int i = 0; i < ts.size(); i++) {
-			int vertex = ts.get(i);
+		for (int i = 0; i < ts.length; i++) {
+			int vertex = ts[i];
 			sssp_helper(vertex);
 		}
-		int node_a = ts.get(0);
+		int node_a = ts[0];
 
 		sssp_helper(node_a);
 		
@@ -74,10 +72,9 @@ public class TopologicalSort {
  	@param vertex, vertex 
  	*/
 	private void sssp_helper(int vertex) {
-		ArrayList<int[]> u_edges = graph.get(vertex);
-		for (int i = 0; i < u_edges.size(); i++) {
-			int v = u_edges.get(i)[0];
-			int w = u_edges.get(i)[1];
+		for (int i = 0; i < graph.degree(vertex); i++) {
+			int v = graph.target(vertex, i);
+			int w = graph.weight(vertex, i);
 			if (paths[vertex] == Integer.MAX_VALUE) {
 				relaxEdge(v, w);
 			} else {
@@ -103,44 +100,40 @@ public class TopologicalSort {
 	}
 
 	/*
- 	Creates the topological sort array.
+ 	Appends the vertices reached from currNode to the post order, each after its descendants.
  	@param currNode, vertex
-  	@param arr, the topological sort array.
+  	@param postOrder, the finished vertices.
  	*/
-	private ArrayList<Integer> dfs(int currNode, ArrayList<Integer> arr) {
+	private void dfs(int currNode, IntArrayList postOrder) {
 		if (visited[currNode]) {
-			return null;
-		} else {
-			visited[currNode] = true;
-			ArrayList<int[]> currNodeEdges = graph.get(currNode);
-			for (int i = 0; i < currNodeEdges.size(); i++) {
-				int vertex = currNodeEdges.get(i)[0];
-				if (!visited[vertex]) {
-					dfs(vertex, arr);
-				}
+			return;
+		}
+		visited[currNode] = true;
+		for (int i = 0; i < graph.degree(currNode); i++) {
+			int vertex = graph.target(currNode, i);
+			if (!visited[vertex]) {
+				dfs(vertex, postOrder);
 			}
 		}
-
-		arr.add(currNode);
-		return arr;
+		postOrder.add(currNode);
 	}
 
 	/*
- 	Runs topological sort on the current graph.
+ 	Runs topological sort on the current graph. The order is the reverse of the order in which
+  	the depth first searches finish the vertices.
 	*/
-	private ArrayList<Integer> topologicalSort() {
-		ArrayList<Integer> arr;
-		ArrayList<Integer> tp = new ArrayList<>();
-		for (int i = 1; i < graph.size(); i++) {
-			arr = new ArrayList<>();
-			dfs(i, arr);
-			for (int j = 0; j < arr.size(); j++) {
-				tp.add(0, arr.get(j));
-			}
+	private int[] topologicalSort() {
+		IntArrayList postOrder = new IntArrayList(graph.vertexCount());
+		for (int i = 1; i < graph.vertexCount(); i++) {
+			dfs(i, postOrder);
+		}
+		int[] tp = new int[postOrder.size()];
+		for (int i = 0; i < tp.length; i++) {
+			tp[i] = postOrder.get(tp.length - 1 - i);
 		}
 
-		for (int i = 0; i < tp.size(); i++) {
-			System.out.print(tp.get(i) + " ");
+		for (int i = 0; i < tp.length; i++) {
+			System.out.print(tp[i] + " ");
 		}
 		System.out.println();
 